@@ -0,0 +1,45 @@
+#!/usr/bin/env bash
+# 平台线程 vs 虚拟线程 压测对比
+# 依赖: JDK 21、wrk、可访问的MySQL(application.yml中的数据源)
+# 用法: bench/virtual-threads.sh [tracking-number] [token]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+TRACKING_NUMBER="${1:-SF1234567890}"
+TOKEN="${2:-}"
+PORT="${PORT:-18080}"
+DURATION="${DURATION:-30s}"
+CONNECTIONS="${CONNECTIONS:-1000}"
+THREADS="${THREADS:-8}"
+
+mvn -B -q -Pvirtual-threads -DskipTests package
+JAR=target/logistics-backend-1.0.0.jar
+
+run() {
+    local mode=$1
+    local enabled=$2
+    echo "==== ${mode} ===="
+    # 虚拟线程模式下打印钉住载体线程的调用栈，用于排查synchronized热点
+    VIRTUAL_THREADS_ENABLED=${enabled} java -Djdk.tracePinnedThreads=short \
+        -jar "${JAR}" --server.port="${PORT}" --logging.level.com.logistics=info \
+        > "target/bench-${mode}.log" 2>&1 &
+    local pid=$!
+    trap 'kill ${pid} 2>/dev/null || true' EXIT
+
+    until curl -sf "http://localhost:${PORT}/api/areas/data" -o /dev/null; do sleep 1; done
+
+    wrk -t"${THREADS}" -c"${CONNECTIONS}" -d"${DURATION}" \
+        "http://localhost:${PORT}/api/orders/tracking/${TRACKING_NUMBER}"
+    if [ -n "${TOKEN}" ]; then
+        wrk -t"${THREADS}" -c"${CONNECTIONS}" -d"${DURATION}" -H "Authorization: Bearer ${TOKEN}" \
+            "http://localhost:${PORT}/api/orders?page=1&pageSize=10"
+    fi
+
+    kill "${pid}"
+    wait "${pid}" 2>/dev/null || true
+    grep -c "pinned" "target/bench-${mode}.log" | xargs echo "pinned events:" || true
+}
+
+run platform false
+run virtual true
@@ -0,0 +1,106 @@
+package com.logistics.benchmark;
+
+import cn.hutool.core.bean.BeanUtil;
+import com.logistics.dto.AddressDTO;
+import com.logistics.dto.OrderCreateDTO;
+import com.logistics.entity.Address;
+import com.logistics.entity.LogisticsNode;
+import com.logistics.entity.Order;
+import com.logistics.entity.User;
+import com.logistics.vo.AddressVO;
+import com.logistics.vo.LogisticsNodeVO;
+import com.logistics.vo.OrderVO;
+import com.logistics.vo.UserVO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 反射属性拷贝(BeanUtil.copyProperties)基线，与 {@link ConverterBenchmark} 同名方法一一对照
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BeanCopyBenchmark {
+
+    private Order order;
+
+    private LogisticsNode node;
+
+    private Address address;
+
+    private User user;
+
+    private OrderCreateDTO orderCreateDTO;
+
+    private AddressDTO addressDTO;
+
+    @Setup
+    public void setup() {
+        order = BenchmarkData.order(1L);
+        node = BenchmarkData.node(1L, 1L, true);
+        address = BenchmarkData.address(1L);
+        user = BenchmarkData.user(1L);
+        orderCreateDTO = BenchmarkData.orderCreateDTO();
+        addressDTO = BenchmarkData.addressDTO();
+    }
+
+    @Benchmark
+    public OrderVO orderToVO() {
+        OrderVO vo = new OrderVO();
+        BeanUtil.copyProperties(order, vo);
+        vo.setStatusText("运输中");
+        return vo;
+    }
+
+    @Benchmark
+    public LogisticsNodeVO nodeToVO() {
+        LogisticsNodeVO vo = new LogisticsNodeVO();
+        BeanUtil.copyProperties(node, vo);
+        vo.setIsActive(node.getIsActive() == 1);
+        return vo;
+    }
+
+    @Benchmark
+    public AddressVO addressToVO() {
+        AddressVO vo = new AddressVO();
+        BeanUtil.copyProperties(address, vo);
+        vo.setIsDefault(address.getIsDefault() == 1);
+        vo.setFullAddress(address.getProvince() + address.getCity() + address.getDistrict() + address.getDetail());
+        return vo;
+    }
+
+    @Benchmark
+    public UserVO userToVO() {
+        UserVO vo = new UserVO();
+        BeanUtil.copyProperties(user, vo);
+        return vo;
+    }
+
+    @Benchmark
+    public Order orderDtoToEntity() {
+        Order entity = new Order();
+        BeanUtil.copyProperties(orderCreateDTO, entity);
+        return entity;
+    }
+
+    @Benchmark
+    public Address addressDtoToEntity() {
+        Address entity = new Address();
+        BeanUtil.copyProperties(addressDTO, entity);
+        entity.setIsDefault(Boolean.TRUE.equals(addressDTO.getIsDefault()) ? 1 : 0);
+        return entity;
+    }
+}
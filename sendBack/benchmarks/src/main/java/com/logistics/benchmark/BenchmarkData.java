@@ -0,0 +1,144 @@
+package com.logistics.benchmark;
+
+import com.logistics.converter.LogisticsNodeConverter;
+import com.logistics.converter.OrderConverter;
+import com.logistics.dto.AddressDTO;
+import com.logistics.dto.OrderCreateDTO;
+import com.logistics.entity.Address;
+import com.logistics.entity.LogisticsNode;
+import com.logistics.entity.Order;
+import com.logistics.entity.User;
+import com.logistics.vo.LogisticsNodeVO;
+import com.logistics.vo.OrderVO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试用的样例数据，字段长度与线上订单相近
+ */
+public final class BenchmarkData {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 5, 1, 9, 30);
+
+    private BenchmarkData() {
+    }
+
+    public static Order order(long id) {
+        Order order = new Order();
+        order.setId(id);
+        order.setTrackingNumber("SF" + (178000000000L + id));
+        order.setCourierCompany("顺丰速运");
+        order.setCourierLogo("https://example.com/logo/sf.png");
+        order.setStatus("in_transit");
+        order.setItemName("文件资料");
+        order.setSenderName("张三");
+        order.setSenderPhone("13800138000");
+        order.setSenderAddress("广东省深圳市南山区科技园南区深南大道10000号");
+        order.setReceiverName("李四");
+        order.setReceiverPhone("13900139000");
+        order.setReceiverAddress("浙江省杭州市西湖区文三路478号华星时代广场");
+        order.setEstimatedTime("预计明天送达");
+        order.setUserId(1L);
+        order.setCreatedAt(BASE_TIME.plusMinutes(id));
+        order.setUpdatedAt(BASE_TIME.plusMinutes(id));
+        order.setDeleted(0);
+        return order;
+    }
+
+    public static LogisticsNode node(long id, long orderId, boolean active) {
+        LogisticsNode node = new LogisticsNode();
+        node.setId(id);
+        node.setOrderId(orderId);
+        node.setTrackingNumber("SF" + (178000000000L + orderId));
+        node.setTime(BASE_TIME.plusHours(id));
+        node.setLocation("杭州市");
+        node.setStatus("运输中");
+        node.setDescription("快件已到达【杭州转运中心】，正在发往【杭州西湖区营业部】");
+        node.setIsActive(active ? 1 : 0);
+        node.setCreatedAt(BASE_TIME.plusHours(id));
+        return node;
+    }
+
+    public static Address address(long id) {
+        Address address = new Address();
+        address.setId(id);
+        address.setName("李四");
+        address.setPhone("13900139000");
+        address.setProvince("浙江省");
+        address.setCity("杭州市");
+        address.setDistrict("西湖区");
+        address.setDetail("文三路478号华星时代广场A座");
+        address.setTag("公司");
+        address.setIsDefault(1);
+        address.setType("receiver");
+        address.setUserId(1L);
+        address.setCreatedAt(BASE_TIME);
+        address.setUpdatedAt(BASE_TIME);
+        address.setDeleted(0);
+        return address;
+    }
+
+    public static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("测试用户");
+        user.setPhone("13800138000");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoO5r0pXxH7RjZ0F5bXz2lH1Z4hQ9FqK6e");
+        user.setAvatar("https://example.com/avatar/1.png");
+        user.setCreatedAt(BASE_TIME);
+        user.setUpdatedAt(BASE_TIME);
+        user.setDeleted(0);
+        return user;
+    }
+
+    public static OrderCreateDTO orderCreateDTO() {
+        OrderCreateDTO dto = new OrderCreateDTO();
+        dto.setCourierCompany("顺丰速运");
+        dto.setCourierLogo("https://example.com/logo/sf.png");
+        dto.setItemName("文件资料");
+        dto.setSenderName("张三");
+        dto.setSenderPhone("13800138000");
+        dto.setSenderAddress("广东省深圳市南山区科技园南区深南大道10000号");
+        dto.setReceiverName("李四");
+        dto.setReceiverPhone("13900139000");
+        dto.setReceiverAddress("浙江省杭州市西湖区文三路478号华星时代广场");
+        dto.setEstimatedTime("预计明天送达");
+        return dto;
+    }
+
+    public static AddressDTO addressDTO() {
+        AddressDTO dto = new AddressDTO();
+        dto.setName("李四");
+        dto.setPhone("13900139000");
+        dto.setProvince("浙江省");
+        dto.setCity("杭州市");
+        dto.setDistrict("西湖区");
+        dto.setDetail("文三路478号华星时代广场A座");
+        dto.setTag("公司");
+        dto.setIsDefault(true);
+        dto.setType("receiver");
+        return dto;
+    }
+
+    /**
+     * 列表页的订单VO，不带物流节点
+     */
+    public static OrderVO orderVO(long id) {
+        return OrderConverter.toVO(order(id));
+    }
+
+    /**
+     * 详情/追踪页的订单VO，带nodeCount个物流节点
+     */
+    public static OrderVO orderVOWithNodes(long id, int nodeCount) {
+        OrderVO vo = orderVO(id);
+        List<LogisticsNodeVO> nodes = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            nodes.add(LogisticsNodeConverter.toVO(node(id * 100 + i, id, i == 0)));
+        }
+        vo.setLogisticsNodes(nodes);
+        return vo;
+    }
+}
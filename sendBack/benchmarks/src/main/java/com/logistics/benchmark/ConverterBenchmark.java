@@ -0,0 +1,92 @@
+package com.logistics.benchmark;
+
+import com.logistics.converter.AddressConverter;
+import com.logistics.converter.LogisticsNodeConverter;
+import com.logistics.converter.OrderConverter;
+import com.logistics.converter.UserConverter;
+import com.logistics.dto.AddressDTO;
+import com.logistics.dto.OrderCreateDTO;
+import com.logistics.entity.Address;
+import com.logistics.entity.LogisticsNode;
+import com.logistics.entity.Order;
+import com.logistics.entity.User;
+import com.logistics.vo.AddressVO;
+import com.logistics.vo.LogisticsNodeVO;
+import com.logistics.vo.OrderVO;
+import com.logistics.vo.UserVO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * converter 包中显式赋值的转换器，对照 {@link BeanCopyBenchmark} 的反射拷贝
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ConverterBenchmark {
+
+    private Order order;
+
+    private LogisticsNode node;
+
+    private Address address;
+
+    private User user;
+
+    private OrderCreateDTO orderCreateDTO;
+
+    private AddressDTO addressDTO;
+
+    @Setup
+    public void setup() {
+        order = BenchmarkData.order(1L);
+        node = BenchmarkData.node(1L, 1L, true);
+        address = BenchmarkData.address(1L);
+        user = BenchmarkData.user(1L);
+        orderCreateDTO = BenchmarkData.orderCreateDTO();
+        addressDTO = BenchmarkData.addressDTO();
+    }
+
+    @Benchmark
+    public OrderVO orderToVO() {
+        return OrderConverter.toVO(order);
+    }
+
+    @Benchmark
+    public LogisticsNodeVO nodeToVO() {
+        return LogisticsNodeConverter.toVO(node);
+    }
+
+    @Benchmark
+    public AddressVO addressToVO() {
+        return AddressConverter.toVO(address);
+    }
+
+    @Benchmark
+    public UserVO userToVO() {
+        return UserConverter.toVO(user);
+    }
+
+    @Benchmark
+    public Order orderDtoToEntity() {
+        return OrderConverter.toEntity(orderCreateDTO);
+    }
+
+    @Benchmark
+    public Address addressDtoToEntity() {
+        return AddressConverter.toEntity(addressDTO);
+    }
+}
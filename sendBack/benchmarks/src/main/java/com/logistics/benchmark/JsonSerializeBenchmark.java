@@ -0,0 +1,93 @@
+package com.logistics.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.cache.ResponseBodyCache;
+import com.logistics.common.Result;
+import com.logistics.vo.OrderVO;
+import com.logistics.vo.PageVO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订单列表与追踪详情响应体的Jackson序列化
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializeBenchmark {
+
+    // 与Spring Boot默认配置的ObjectMapper一致
+    private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    @State(Scope.Thread)
+    public static class PageState {
+
+        @Param({"10", "50"})
+        int pageSize;
+
+        Result<PageVO<OrderVO>> body;
+
+        @Setup
+        public void setup() {
+            List<OrderVO> list = new ArrayList<>(pageSize);
+            for (int i = 0; i < pageSize; i++) {
+                list.add(BenchmarkData.orderVO(i + 1));
+            }
+            body = Result.success(PageVO.of(list, 1000L, 1, pageSize));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DetailState {
+
+        @Param({"8"})
+        int nodeCount;
+
+        Result<OrderVO> body;
+
+        ResponseBodyCache<String> bodyCache;
+
+        @Setup
+        public void setup() {
+            body = Result.success(BenchmarkData.orderVOWithNodes(1L, nodeCount));
+            bodyCache = new ResponseBodyCache<>("tracking-body", 16, 0, OBJECT_MAPPER);
+        }
+    }
+
+    @Benchmark
+    public byte[] orderPage(PageState state) throws JsonProcessingException {
+        return OBJECT_MAPPER.writeValueAsBytes(state.body);
+    }
+
+    @Benchmark
+    public byte[] orderWithNodes(DetailState state) throws JsonProcessingException {
+        return OBJECT_MAPPER.writeValueAsBytes(state.body);
+    }
+
+    /**
+     * 已签收订单走预序列化缓存，对照 orderWithNodes 的逐次序列化
+     */
+    @Benchmark
+    public ResponseEntity<byte[]> orderWithNodesPrecompressed(DetailState state) {
+        return state.bodyCache.getOrSerialize(state.body.getData().getTrackingNumber(), state.body.getData())
+                .toResponse(null, "gzip, deflate, br");
+    }
+}
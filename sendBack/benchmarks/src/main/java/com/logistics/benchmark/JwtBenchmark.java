@@ -0,0 +1,84 @@
+package com.logistics.benchmark;
+
+import cn.hutool.core.util.ReflectUtil;
+import com.logistics.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil 签发、验签与校验(含已验签缓存命中/未命中)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtBenchmark {
+
+    private static final String SECRET = "logistics-system-jwt-secret-key-must-be-at-least-256-bits-long-for-hs256";
+
+    private JwtUtil jwtUtil;
+
+    // 缓存容量为1，交替校验两个Token使每次都走完整验签
+    private JwtUtil uncachedJwtUtil;
+
+    private String token;
+
+    private String[] alternatingTokens;
+
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        jwtUtil = newJwtUtil(10000);
+        uncachedJwtUtil = newJwtUtil(1);
+        token = jwtUtil.generateToken(1L, "13800138000");
+        alternatingTokens = new String[]{
+                jwtUtil.generateToken(1L, "13800138000"),
+                jwtUtil.generateToken(2L, "13900139000")
+        };
+        jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(1L, "13800138000");
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return jwtUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public boolean validateTokenCached() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public boolean validateTokenUncached() {
+        cursor ^= 1;
+        return uncachedJwtUtil.validateToken(alternatingTokens[cursor]);
+    }
+
+    private static JwtUtil newJwtUtil(int cacheSize) {
+        JwtUtil util = new JwtUtil();
+        ReflectUtil.setFieldValue(util, "secret", SECRET);
+        ReflectUtil.setFieldValue(util, "expiration", 86400000L);
+        ReflectUtil.setFieldValue(util, "cacheSize", cacheSize);
+        util.init();
+        return util;
+    }
+}
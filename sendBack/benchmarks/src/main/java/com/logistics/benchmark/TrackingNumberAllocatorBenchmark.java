@@ -0,0 +1,117 @@
+package com.logistics.benchmark;
+
+import cn.hutool.core.util.ReflectUtil;
+import com.logistics.mapper.TrackingSequenceMapper;
+import com.logistics.sequence.TrackingNumberAllocator;
+import com.logistics.util.TrackingNumberUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 快递单号分配：号段内纯内存分配，序列表以内存实现代替，只计入号段切换的本地开销
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrackingNumberAllocatorBenchmark {
+
+    @Param({"顺丰速运", "其他快递"})
+    private String courierCompany;
+
+    private TrackingNumberAllocator allocator;
+
+    private String trackingNumber;
+
+    @Setup
+    public void setup() {
+        allocator = new TrackingNumberAllocator(new InMemorySequenceMapper(), new LockingTransactionManager(),
+                new SimpleAsyncTaskExecutor("sequence-prefetch-"));
+        ReflectUtil.setFieldValue(allocator, "blockSize", 1000);
+        ReflectUtil.setFieldValue(allocator, "prefetchRatio", 0.2D);
+        trackingNumber = allocator.allocate(courierCompany);
+    }
+
+    @Benchmark
+    public String allocate() {
+        return allocator.allocate(courierCompany);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String allocateContended() {
+        return allocator.allocate(courierCompany);
+    }
+
+    @Benchmark
+    public boolean isWellFormed() {
+        return TrackingNumberUtil.isWellFormed(trackingNumber);
+    }
+
+    static class InMemorySequenceMapper implements TrackingSequenceMapper {
+
+        private final Map<String, Long> nextValues = new ConcurrentHashMap<>();
+
+        @Override
+        public Long selectNextValueForUpdate(String courierCode) {
+            return nextValues.get(courierCode);
+        }
+
+        @Override
+        public int insertIgnore(String courierCode, long nextValue) {
+            return nextValues.putIfAbsent(courierCode, nextValue) == null ? 1 : 0;
+        }
+
+        @Override
+        public int updateNextValue(String courierCode, long nextValue) {
+            nextValues.put(courierCode, nextValue);
+            return 1;
+        }
+    }
+
+    /**
+     * 以全局锁模拟序列行的 SELECT ... FOR UPDATE
+     */
+    static class LockingTransactionManager implements PlatformTransactionManager {
+
+        private final ReentrantLock rowLock = new ReentrantLock();
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            rowLock.lock();
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            rowLock.unlock();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            rowLock.unlock();
+        }
+    }
+}
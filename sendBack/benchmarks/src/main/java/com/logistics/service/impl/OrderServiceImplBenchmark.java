@@ -0,0 +1,37 @@
+package com.logistics.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderServiceImpl 下单路径上的纯CPU辅助方法，放在同包下以直接调用包级可见的方法；单号生成见 TrackingNumberAllocatorBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderServiceImplBenchmark {
+
+    @State(Scope.Thread)
+    public static class AddressState {
+
+        @Param({"广东省深圳市南山区科技园南区深南大道10000号", "北京市朝阳区建国路88号", "新疆维吾尔自治区乌鲁木齐县水西沟镇"})
+        String address;
+    }
+
+    @Benchmark
+    public String extractCity(AddressState state) {
+        return OrderServiceImpl.extractCity(state.address);
+    }
+}
@@ -0,0 +1,49 @@
+package com.logistics.archive;
+
+import cn.hutool.core.util.ZipUtil;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.entity.LogisticsNode;
+import com.logistics.entity.LogisticsNodeArchive;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * 归档节点列表的编解码：JSON后gzip，同一订单的节点字段高度重复，压缩后通常只有原来的几分之一
+ */
+@Component
+public class LogisticsNodeArchiveCodec {
+
+    private static final TypeReference<List<LogisticsNode>> NODE_LIST = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+
+    public LogisticsNodeArchiveCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public LogisticsNodeArchive encode(Long orderId, String trackingNumber, List<LogisticsNode> nodes) {
+        LogisticsNodeArchive archive = new LogisticsNodeArchive();
+        archive.setOrderId(orderId);
+        archive.setTrackingNumber(trackingNumber);
+        archive.setNodeCount(nodes.size());
+        try {
+            archive.setNodes(ZipUtil.gzip(objectMapper.writeValueAsBytes(nodes)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return archive;
+    }
+
+    public List<LogisticsNode> decode(LogisticsNodeArchive archive) {
+        try {
+            return objectMapper.readValue(ZipUtil.unGzip(archive.getNodes()), NODE_LIST);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.logistics.archive;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.logistics.entity.LogisticsNode;
+import com.logistics.entity.LogisticsNodeArchive;
+import com.logistics.entity.Order;
+import com.logistics.mapper.LogisticsNodeArchiveMapper;
+import com.logistics.mapper.LogisticsNodeMapper;
+import com.logistics.mapper.OrderMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 物流节点冷热分离：已签收且超过保留期的订单，节点压缩后搬到归档表，热表按节点ID删除。
+ * 热表不分区：查询都按订单ID，按时间分区无法裁剪；归档按订单而非按月进行，未签收的订单会让旧分区始终不空
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "logistics.archive", name = "enabled", havingValue = "true")
+public class LogisticsNodeArchiver {
+
+    private final OrderMapper orderMapper;
+    private final LogisticsNodeMapper logisticsNodeMapper;
+    private final LogisticsNodeArchiveMapper archiveMapper;
+    private final LogisticsNodeArchiveCodec archiveCodec;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${logistics.archive.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${logistics.archive.batch-size:200}")
+    private int batchSize;
+
+    @Value("${logistics.archive.max-batches:50}")
+    private int maxBatches;
+
+    public LogisticsNodeArchiver(OrderMapper orderMapper, LogisticsNodeMapper logisticsNodeMapper,
+                                 LogisticsNodeArchiveMapper archiveMapper, LogisticsNodeArchiveCodec archiveCodec,
+                                 TransactionTemplate transactionTemplate) {
+        this.orderMapper = orderMapper;
+        this.logisticsNodeMapper = logisticsNodeMapper;
+        this.archiveMapper = archiveMapper;
+        this.archiveCodec = archiveCodec;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${logistics.archive.interval:3600000}",
+            initialDelayString = "${logistics.archive.initial-delay:60000}")
+    public void run() {
+        archiveDeliveredOrders();
+    }
+
+    /**
+     * 分批归档，每批一个事务，单次最多max-batches批，剩余的留到下次
+     */
+    public int archiveDeliveredOrders() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            Integer archived = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += archived;
+            if (archived < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("已归档 {} 个已签收订单的物流节点", total);
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        // SKIP LOCKED：多实例同时执行时各自领取不同的订单
+        List<Order> orders = orderMapper.selectList(
+                new LambdaQueryWrapper<Order>()
+                        .select(Order::getId, Order::getTrackingNumber)
+                        .eq(Order::getStatus, "delivered")
+                        .eq(Order::getNodesArchived, 0)
+                        .lt(Order::getUpdatedAt, cutoff)
+                        .last("LIMIT " + batchSize + " FOR UPDATE SKIP LOCKED")
+        );
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        List<Long> orderIds = orders.stream().map(Order::getId).collect(Collectors.toList());
+
+        Map<Long, List<LogisticsNode>> nodesByOrder = logisticsNodeMapper.selectList(
+                new LambdaQueryWrapper<LogisticsNode>()
+                        .in(LogisticsNode::getOrderId, orderIds)
+                        .orderByDesc(LogisticsNode::getTime)
+        ).stream().collect(Collectors.groupingBy(LogisticsNode::getOrderId));
+
+        List<LogisticsNodeArchive> archives = new ArrayList<>(nodesByOrder.size());
+        List<Long> archivedNodeIds = new ArrayList<>();
+        for (Order order : orders) {
+            List<LogisticsNode> nodes = nodesByOrder.get(order.getId());
+            if (nodes != null) {
+                archives.add(archiveCodec.encode(order.getId(), order.getTrackingNumber(), nodes));
+                nodes.forEach(node -> archivedNodeIds.add(node.getId()));
+            }
+        }
+        if (!archives.isEmpty()) {
+            archiveMapper.upsertBatch(archives);
+            // 只删已编码进归档的节点：补录的节点不更新订单行，不受上面的行锁阻塞，
+            // 读取之后提交的节点留在热表，由 LogisticsNodeReader 与归档合并
+            logisticsNodeMapper.delete(
+                    new LambdaQueryWrapper<LogisticsNode>().in(LogisticsNode::getId, archivedNodeIds)
+            );
+        }
+        orderMapper.update(null,
+                new LambdaUpdateWrapper<Order>()
+                        .in(Order::getId, orderIds)
+                        .set(Order::getNodesArchived, 1)
+        );
+        return orders.size();
+    }
+}
@@ -0,0 +1,298 @@
+package com.logistics.cache;
+
+import cn.hutool.core.util.IdUtil;
+import com.logistics.entity.CacheInvalidation;
+import com.logistics.mapper.ActiveTransactionMapper;
+import com.logistics.mapper.CacheInvalidationMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 跨节点缓存失效总线：失效消息与业务数据在同一事务写入 t_cache_invalidation，提交后才对其他节点可见；
+ * 各节点定时拉取新消息并失效本地缓存，未开启 cache.cluster.enabled 时不写不拉，只在本节点失效
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus {
+
+    private final CacheInvalidationMapper invalidationMapper;
+
+    private final ActiveTransactionMapper activeTransactionMapper;
+
+    private final Map<String, TwoLevelCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    // 本节点标识，拉取时跳过自己发出的消息
+    private final String nodeId = IdUtil.fastSimpleUUID();
+
+    @Value("${cache.cluster.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cache.cluster.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cache.cluster.gap-timeout:60000}")
+    private long gapTimeout;
+
+    @Value("${cache.cluster.max-transaction-time:600000}")
+    private long maxTransactionTime;
+
+    @Value("${cache.cluster.max-staleness:30000}")
+    private long maxStaleness;
+
+    @Value("${cache.cluster.retention:3600000}")
+    private long retention;
+
+    // 以下状态只在调度线程上读写
+    private long lastId = -1;
+
+    // 自增ID按分配顺序而非提交顺序可见，被跳过的ID区间每轮补查，直到占用它们的事务不可能再提交；key为区间起始ID
+    private final TreeMap<Long, Gap> gaps = new TreeMap<>();
+
+    private long lastSuccessAt = System.currentTimeMillis();
+
+    public CacheInvalidationBus(CacheInvalidationMapper invalidationMapper,
+                                ActiveTransactionMapper activeTransactionMapper) {
+        this.invalidationMapper = invalidationMapper;
+        this.activeTransactionMapper = activeTransactionMapper;
+    }
+
+    /**
+     * 登记缓存，拉到的消息按缓存名分发
+     */
+    public <C extends TwoLevelCache<?, ?>> C register(C cache) {
+        caches.put(cache.getName(), cache);
+        return cache;
+    }
+
+    /**
+     * 有事务时同一事务内的消息在提交前合并写入，无事务时立即写入
+     */
+    public void publish(String cacheName, String key) {
+        if (!enabled) {
+            return;
+        }
+        CacheInvalidation row = new CacheInvalidation();
+        row.setCacheName(cacheName);
+        row.setCacheKey(key);
+        row.setOrigin(nodeId);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                invalidationMapper.insertBatch(List.of(row));
+            } catch (RuntimeException e) {
+                // 数据已提交，其他节点只能等缓存过期
+                log.error("缓存失效消息写入失败 {}:{}", cacheName, key, e);
+            }
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<CacheInvalidation> pending = (Set<CacheInvalidation>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<CacheInvalidation> rows = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, rows);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // 写入失败时整个事务回滚，不会出现数据已变更而其他节点收不到失效的情况
+                    invalidationMapper.insertBatch(rows);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(CacheInvalidationBus.this);
+                }
+            });
+            pending = rows;
+        }
+        pending.add(row);
+    }
+
+    /**
+     * 启动时从当前最大ID开始拉取，之前的消息与本节点的空缓存无关
+     */
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            lastId = invalidationMapper.selectMaxId();
+        } catch (RuntimeException e) {
+            log.warn("读取缓存失效消息位置失败，首次拉取成功后再初始化: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cache.cluster.poll-interval:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            if (lastId < 0) {
+                lastId = invalidationMapper.selectMaxId();
+                clearAll();
+            } else {
+                pollOnce(now);
+                if (now - lastSuccessAt > maxStaleness) {
+                    // 中断期间的消息可能已被清理，本地缓存整体作废
+                    clearAll();
+                }
+            }
+            lastSuccessAt = now;
+        } catch (RuntimeException e) {
+            log.warn("拉取缓存失效消息失败: {}", e.getMessage());
+            if (now - lastSuccessAt > maxStaleness) {
+                // 长时间收不到其他节点的失效，宁可回源也不继续返回可能过期的数据
+                clearAll();
+            }
+        }
+    }
+
+    /**
+     * 清理超过保留期的消息，各节点都会执行，重复删除无副作用
+     */
+    @Scheduled(fixedDelayString = "${cache.cluster.cleanup-interval:600000}")
+    public void cleanup() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime before = LocalDateTime.now().minus(Duration.ofMillis(retention));
+        try {
+            // 分批删除，避免长时间持锁
+            int deleted;
+            do {
+                deleted = invalidationMapper.deleteBefore(before, batchSize);
+            } while (deleted == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("清理缓存失效消息失败: {}", e.getMessage());
+        }
+    }
+
+    private void pollOnce(long now) {
+        if (!gaps.isEmpty()) {
+            recheckGaps(now);
+        }
+
+        List<CacheInvalidation> rows;
+        do {
+            rows = invalidationMapper.selectAfter(lastId, batchSize);
+            for (CacheInvalidation row : rows) {
+                long id = row.getId();
+                // 跳过的ID可能属于尚未提交的事务，也可能是回滚留下的空洞，整段记下补查
+                if (id > lastId + 1) {
+                    gaps.put(lastId + 1, new Gap(id - 1, now));
+                }
+                lastId = id;
+                apply(row);
+            }
+        } while (rows.size() == batchSize);
+    }
+
+    /**
+     * 先判定哪些区间已作废再补查，判定之后才提交的消息仍能在这次补查中读到
+     */
+    private void recheckGaps(long now) {
+        Long longestRunning = longestRunningTransaction();
+        for (Gap gap : gaps.values()) {
+            long waited = now - gap.foundAt;
+            // 分配ID的事务一定在发现空洞前开始，此后开始的事务与该区间无关
+            gap.abandoned = waited >= gapTimeout
+                    && (longestRunning != null ? longestRunning < waited : waited >= maxTransactionTime);
+        }
+
+        Map<Long, Long> ranges = new LinkedHashMap<>();
+        gaps.forEach((from, gap) -> ranges.put(from, gap.to));
+        for (CacheInvalidation row : invalidationMapper.selectInRanges(ranges)) {
+            long id = row.getId();
+            Map.Entry<Long, Gap> entry = gaps.floorEntry(id);
+            if (entry == null || entry.getValue().to < id) {
+                continue;
+            }
+            Gap gap = gaps.remove(entry.getKey());
+            if (entry.getKey() < id) {
+                gaps.put(entry.getKey(), gap.split(id - 1));
+            }
+            if (id < gap.to) {
+                gaps.put(id + 1, gap.split(gap.to));
+            }
+            apply(row);
+        }
+
+        gaps.entrySet().removeIf(entry -> {
+            if (entry.getValue().abandoned) {
+                log.debug("缓存失效消息ID {}-{} 未出现且此前开始的事务均已结束，按回滚放弃", entry.getKey(), entry.getValue().to);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * 运行最久的事务已持续的毫秒数，无权读取事务列表时返回null
+     */
+    private Long longestRunningTransaction() {
+        try {
+            return activeTransactionMapper.selectLongestRunningMillis();
+        } catch (RuntimeException e) {
+            log.debug("读取活动事务失败，空洞等待至 max-transaction-time: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void apply(CacheInvalidation row) {
+        if (nodeId.equals(row.getOrigin())) {
+            return;
+        }
+        TwoLevelCache<?, ?> cache = caches.get(row.getCacheName());
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.evictRemote(row.getCacheKey());
+        } catch (RuntimeException e) {
+            log.warn("缓存失效消息无法处理 {}:{}: {}", row.getCacheName(), row.getCacheKey(), e.getMessage());
+        }
+    }
+
+    private void clearAll() {
+        caches.values().forEach(TwoLevelCache::clear);
+    }
+
+    private static class Gap {
+
+        private final long to;
+
+        private final long foundAt;
+
+        private boolean abandoned;
+
+        private Gap(long to, long foundAt) {
+            this.to = to;
+            this.foundAt = foundAt;
+        }
+
+        private Gap split(long to) {
+            Gap gap = new Gap(to, foundAt);
+            gap.abandoned = abandoned;
+            return gap;
+        }
+    }
+}
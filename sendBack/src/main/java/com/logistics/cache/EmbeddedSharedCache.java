@@ -0,0 +1,49 @@
+package com.logistics.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * 进程内的共享缓存替身，按JSON字节存取，与远程实现走同样的序列化路径，供测试和本地联调使用
+ */
+public class EmbeddedSharedCache extends LocalCache<String, byte[]> implements SharedCache {
+
+    private final ObjectMapper objectMapper;
+
+    public EmbeddedSharedCache(int capacity, long ttl, ObjectMapper objectMapper) {
+        super("l2-embedded", capacity, ttl);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public <V> V lookup(String key, JavaType type) {
+        byte[] bytes = get(key, false);
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(bytes, type);
+        } catch (IOException e) {
+            // 值的结构已变化(如升级后字段调整)，按未命中处理
+            remove(key);
+            return null;
+        }
+    }
+
+    @Override
+    public void store(String key, Object value) {
+        try {
+            put(key, objectMapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("共享缓存序列化失败: " + key, e);
+        }
+    }
+
+    @Override
+    public void evict(String key) {
+        remove(key);
+    }
+}
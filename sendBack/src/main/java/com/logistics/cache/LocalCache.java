@@ -0,0 +1,222 @@
+package com.logistics.cache;
+
+import cn.hutool.cache.impl.CacheObj;
+import cn.hutool.cache.impl.LRUCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 有界本地缓存，条目默认按写入时间绝对过期(也可按空闲时间过期)，并统计命中、淘汰和失效次数
+ */
+public class LocalCache<K, V> extends LRUCache<K, V> {
+
+    private final String name;
+
+    // true时每次命中刷新访问时间，timeout即空闲过期时间
+    private final boolean idleExpire;
+
+    private final LongAdder putCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private final LongAdder invalidationCount = new LongAdder();
+
+    // 正在加载的key：加载期间该key被失效时递增其代数，回填前比较后放弃写入旧值，其他key的加载不受影响
+    private final ConcurrentHashMap<K, Fill> fills = new ConcurrentHashMap<>();
+
+    public LocalCache(String name, int capacity, long timeout) {
+        this(name, capacity, timeout, false);
+    }
+
+    public LocalCache(String name, int capacity, long timeout, boolean idleExpire) {
+        super(capacity, timeout);
+        this.name = name;
+        this.idleExpire = idleExpire;
+        // 容量淘汰只通知监听器不经过onRemove，过期清理两者都会触发，统一在监听器中计数
+        setListener((key, value) -> evictionCount.increment());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 读取缓存，未命中时调用loader加载并回填，loader返回null时不缓存
+     */
+    public V getOrLoad(K key, Supplier<V> loader) {
+        // 默认不刷新访问时间，保持写入后绝对过期
+        V value = get(key, idleExpire);
+        if (value != null) {
+            return value;
+        }
+        long start = startLoad(key);
+        try {
+            value = loader.get();
+            return value;
+        } finally {
+            V loaded = value;
+            finishLoad(key, start, loaded != null ? () -> put(key, loaded) : null);
+        }
+    }
+
+    /**
+     * 批量读取，未命中的key交给loader一次加载并回填，loader结果中没有的key视为不存在且不缓存
+     */
+    public Map<K, V> getAllOrLoad(Collection<K> keys, Function<Set<K>, Map<K, V>> loader) {
+        Map<K, V> result = new HashMap<>();
+        Set<K> missing = new LinkedHashSet<>();
+        for (K key : keys) {
+            V value = get(key, idleExpire);
+            if (value != null) {
+                result.put(key, value);
+            } else {
+                missing.add(key);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<K, Long> starts = new HashMap<>();
+        missing.forEach(key -> starts.put(key, startLoad(key)));
+        Map<K, V> loaded = Map.of();
+        try {
+            loaded = loader.apply(missing);
+            loaded.forEach((key, value) -> {
+                if (value != null) {
+                    result.put(key, value);
+                }
+            });
+            return result;
+        } finally {
+            Map<K, V> values = loaded;
+            starts.forEach((key, start) -> {
+                V value = values.get(key);
+                finishLoad(key, start, value != null ? () -> put(key, value) : null);
+            });
+        }
+    }
+
+    /**
+     * 原子写入：key不存在、已过期或现有值满足replaceable时写入value并返回null，否则不写入并返回现有值
+     */
+    public V putIfAbsent(K key, V value, Predicate<V> replaceable) {
+        lock.lock();
+        try {
+            V existing = get(key, false);
+            if (existing != null && !replaceable.test(existing)) {
+                return existing;
+            }
+            put(key, value);
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 立即失效，并在当前事务提交后再失效一次，防止提交前被并发读回填旧值
+     */
+    public void invalidateAfterCommit(K key) {
+        remove(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(key);
+                }
+            });
+        }
+    }
+
+    /**
+     * 登记对key的加载并返回该key当前的失效代数，加载结束后必须调用finishLoad
+     */
+    protected long startLoad(K key) {
+        return fills.compute(key, (k, fill) -> {
+            Fill current = fill != null ? fill : new Fill();
+            current.loaders++;
+            return current;
+        }).generation;
+    }
+
+    /**
+     * 结束登记；加载期间key未被失效时执行store回填(可为null)。
+     * 比较与回填在同一key的锁内完成，与remove互斥，不会在失效之后写回旧值
+     */
+    protected void finishLoad(K key, long start, Runnable store) {
+        fills.compute(key, (k, fill) -> {
+            if (store != null && fill.generation == start) {
+                store.run();
+            }
+            return --fill.loaders > 0 ? fill : null;
+        });
+    }
+
+    @Override
+    public void remove(K key) {
+        // 先作废进行中的加载再删除，删除之后不会再有旧值回填
+        fills.computeIfPresent(key, (k, fill) -> {
+            fill.generation++;
+            return fill;
+        });
+        CacheObj<K, V> removed;
+        lock.lock();
+        try {
+            removed = removeWithoutLock(key);
+        } finally {
+            lock.unlock();
+        }
+        if (removed != null) {
+            invalidationCount.increment();
+        }
+    }
+
+    @Override
+    public void clear() {
+        fills.replaceAll((k, fill) -> {
+            fill.generation++;
+            return fill;
+        });
+        super.clear();
+    }
+
+    @Override
+    public void put(K key, V object, long timeout) {
+        super.put(key, object, timeout);
+        putCount.increment();
+    }
+
+    public long getPutCount() {
+        return putCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    public long getInvalidationCount() {
+        return invalidationCount.sum();
+    }
+
+    /**
+     * 单个key上进行中的加载，字段只在fills对该key的compute内读写
+     */
+    private static class Fill {
+
+        private long generation;
+
+        private int loaders;
+    }
+}
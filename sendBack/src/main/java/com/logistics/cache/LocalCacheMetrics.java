@@ -0,0 +1,55 @@
+package com.logistics.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * 本地缓存指标：命中、未命中、写入、淘汰沿用Micrometer通用的 cache.* 指标名，以cache标签区分，
+ * 另加主动失效次数和容量上限，经监控端口的 /actuator/metrics 查看
+ */
+public class LocalCacheMetrics extends CacheMeterBinder<LocalCache<?, ?>> {
+
+    public LocalCacheMetrics(LocalCache<?, ?> cache) {
+        super(cache, cache.getName(), Tags.empty());
+    }
+
+    @Override
+    protected Long size() {
+        return (long) getCache().size();
+    }
+
+    @Override
+    protected long hitCount() {
+        return getCache().getHitCount();
+    }
+
+    @Override
+    protected Long missCount() {
+        return getCache().getMissCount();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return getCache().getEvictionCount();
+    }
+
+    @Override
+    protected long putCount() {
+        return getCache().getPutCount();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("cache.invalidations", getCache(), LocalCache::getInvalidationCount)
+                .tags(getTagsWithCacheName())
+                .description("主动失效次数")
+                .register(registry);
+        Gauge.builder("cache.capacity", getCache(), LocalCache::capacity)
+                .tags(getTagsWithCacheName())
+                .description("容量上限")
+                .register(registry);
+    }
+}
@@ -0,0 +1,50 @@
+package com.logistics.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.common.PrecompressedBody;
+import com.logistics.common.Result;
+
+/**
+ * 预序列化响应体缓存：按视图对象缓存 Result 包装后的JSON及gzip字节。
+ * 视图对象即版本号，上游缓存失效后换成新实例，旧字节自然作废，无需单独失效
+ */
+public class ResponseBodyCache<K> extends LocalCache<K, ResponseBodyCache.Entry> {
+
+    private final ObjectMapper objectMapper;
+
+    public ResponseBodyCache(String name, int capacity, long timeout, ObjectMapper objectMapper) {
+        super(name, capacity, timeout);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 取view对应的响应体，view与缓存时不是同一实例时重新序列化
+     */
+    public PrecompressedBody getOrSerialize(K key, Object view) {
+        Entry entry = get(key, false);
+        if (entry != null && entry.view == view) {
+            return entry.body;
+        }
+        PrecompressedBody body;
+        try {
+            body = PrecompressedBody.of(objectMapper.writeValueAsBytes(Result.success(view)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("响应体序列化失败", e);
+        }
+        put(key, new Entry(view, body));
+        return body;
+    }
+
+    public static final class Entry {
+
+        private final Object view;
+
+        private final PrecompressedBody body;
+
+        private Entry(Object view, PrecompressedBody body) {
+            this.view = view;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.logistics.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+/**
+ * 多个节点共用的二级缓存，key已带缓存名前缀；实现需自行处理序列化与过期
+ */
+public interface SharedCache {
+
+    /**
+     * 读取并按type反序列化，不存在或已过期时返回null
+     */
+    <V> V lookup(String key, JavaType type);
+
+    void store(String key, Object value);
+
+    void evict(String key);
+}
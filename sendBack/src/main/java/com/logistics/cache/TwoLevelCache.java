@@ -0,0 +1,164 @@
+package com.logistics.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 两级缓存：本地L1之下可挂共享L2。失效时本节点立即生效，并经失效总线在事务提交后通知其他节点
+ */
+@Slf4j
+public class TwoLevelCache<K, V> extends LocalCache<K, V> {
+
+    // 总线消息里的key是字符串，按缓存的key类型还原
+    private final Function<String, K> keyParser;
+
+    private final JavaType valueType;
+
+    // 未配置共享缓存时为null，只用本地缓存
+    private final SharedCache sharedCache;
+
+    private final CacheInvalidationBus invalidationBus;
+
+    public TwoLevelCache(String name, int capacity, long timeout, boolean idleExpire,
+                         Function<String, K> keyParser, JavaType valueType,
+                         SharedCache sharedCache, CacheInvalidationBus invalidationBus) {
+        super(name, capacity, timeout, idleExpire);
+        this.keyParser = keyParser;
+        this.valueType = valueType;
+        this.sharedCache = sharedCache;
+        this.invalidationBus = invalidationBus;
+    }
+
+    @Override
+    public V getOrLoad(K key, Supplier<V> loader) {
+        if (sharedCache == null) {
+            return super.getOrLoad(key, loader);
+        }
+        return super.getOrLoad(key, () -> loadThrough(key, loader));
+    }
+
+    @Override
+    public Map<K, V> getAllOrLoad(Collection<K> keys, Function<Set<K>, Map<K, V>> loader) {
+        if (sharedCache == null) {
+            return super.getAllOrLoad(keys, loader);
+        }
+        return super.getAllOrLoad(keys, missing -> loadAllThrough(missing, loader));
+    }
+
+    /**
+     * 本节点立即失效L1和L2，事务结束后再失效一次，并广播给其他节点
+     */
+    @Override
+    public void invalidateAfterCommit(K key) {
+        evictLocal(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictLocal(key);
+                }
+            });
+        }
+        invalidationBus.publish(getName(), String.valueOf(key));
+    }
+
+    /**
+     * 处理其他节点的失效消息；L2也删一次，覆盖对方提交前有节点把旧值写回L2的情况
+     */
+    void evictRemote(String key) {
+        evictLocal(keyParser.apply(key));
+    }
+
+    private void evictLocal(K key) {
+        remove(key);
+        if (sharedCache != null) {
+            try {
+                sharedCache.evict(sharedKey(key));
+            } catch (RuntimeException e) {
+                log.warn("共享缓存失效失败 {}: {}", sharedKey(key), e.getMessage());
+            }
+        }
+    }
+
+    private V loadThrough(K key, Supplier<V> loader) {
+        V value = lookupShared(key);
+        if (value != null) {
+            return value;
+        }
+        long start = startLoad(key);
+        try {
+            value = loader.get();
+            return value;
+        } finally {
+            V loaded = value;
+            finishLoad(key, start, loaded != null ? () -> storeShared(key, loaded) : null);
+        }
+    }
+
+    private Map<K, V> loadAllThrough(Set<K> keys, Function<Set<K>, Map<K, V>> loader) {
+        Map<K, V> result = new HashMap<>();
+        Set<K> missing = new LinkedHashSet<>();
+        for (K key : keys) {
+            V value = lookupShared(key);
+            if (value != null) {
+                result.put(key, value);
+            } else {
+                missing.add(key);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<K, Long> starts = new HashMap<>();
+        missing.forEach(key -> starts.put(key, startLoad(key)));
+        Map<K, V> loaded = Map.of();
+        try {
+            loaded = loader.apply(missing);
+            loaded.forEach((key, value) -> {
+                if (value != null) {
+                    result.put(key, value);
+                }
+            });
+            return result;
+        } finally {
+            Map<K, V> values = loaded;
+            starts.forEach((key, start) -> {
+                V value = values.get(key);
+                finishLoad(key, start, value != null ? () -> storeShared(key, value) : null);
+            });
+        }
+    }
+
+    // 共享缓存不可用时降级为直接回源，不影响请求
+    private V lookupShared(K key) {
+        try {
+            return sharedCache.lookup(sharedKey(key), valueType);
+        } catch (RuntimeException e) {
+            log.warn("共享缓存读取失败 {}: {}", sharedKey(key), e.getMessage());
+            return null;
+        }
+    }
+
+    private void storeShared(K key, V value) {
+        try {
+            sharedCache.store(sharedKey(key), value);
+        } catch (RuntimeException e) {
+            log.warn("共享缓存写入失败 {}: {}", sharedKey(key), e.getMessage());
+        }
+    }
+
+    private String sharedKey(K key) {
+        return getName() + ":" + key;
+    }
+}
@@ -0,0 +1,93 @@
+package com.logistics.common;
+
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.core.util.ZipUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * 预先序列化并压缩好的JSON响应体，按请求的If-None-Match和Accept-Encoding直接输出
+ */
+@Getter
+public class PrecompressedBody {
+
+    private final byte[] json;
+
+    private final byte[] gzip;
+
+    private final String etag;
+
+    private final String gzipEtag;
+
+    private PrecompressedBody(byte[] json) {
+        this.json = json;
+        this.gzip = ZipUtil.gzip(json);
+        String hash = DigestUtil.sha256Hex(json);
+        this.etag = "\"" + hash + "\"";
+        this.gzipEtag = "\"" + hash + "-gzip\"";
+    }
+
+    public static PrecompressedBody of(byte[] json) {
+        return new PrecompressedBody(json);
+    }
+
+    public ResponseEntity<byte[]> toResponse(String ifNoneMatch, String acceptEncoding) {
+        boolean useGzip = acceptsGzip(acceptEncoding);
+        String currentEtag = useGzip ? gzipEtag : etag;
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(currentEtag);
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+
+        if (matches(ifNoneMatch)) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (useGzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        byte[] body = useGzip ? gzip : json;
+        headers.setContentLength(body.length);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    private boolean matches(String ifNoneMatch) {
+        if (StrUtil.isBlank(ifNoneMatch)) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = StrUtil.removePrefix(tag.trim(), "W/");
+            if ("*".equals(candidate) || etag.equals(candidate) || gzipEtag.equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (StrUtil.isBlank(acceptEncoding)) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (!"gzip".equalsIgnoreCase(tokens[0].trim())) {
+                continue;
+            }
+            // q=0 表示客户端明确拒绝
+            for (int i = 1; i < tokens.length; i++) {
+                if (tokens[i].trim().matches("q=0(\\.0{0,3})?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -10,12 +10,15 @@ public enum ResultCode {
     FORBIDDEN(403, "没有权限访问"),
     NOT_FOUND(404, "资源不存在"),
     BAD_REQUEST(400, "请求参数错误"),
+    SERVICE_BUSY(503, "系统繁忙，请稍后重试"),
+    TOO_MANY_REQUESTS(429, "请求过于频繁，请稍后重试"),
     TOKEN_EXPIRED(401, "Token已过期"),
     TOKEN_INVALID(401, "Token无效"),
     USER_NOT_FOUND(1001, "用户不存在"),
     USER_PASSWORD_ERROR(1002, "密码错误"),
     USER_PHONE_EXISTS(1003, "手机号已存在"),
     ORDER_NOT_FOUND(2001, "订单不存在"),
+    TRACKING_NUMBER_INVALID(2002, "快递单号格式错误"),
     ADDRESS_NOT_FOUND(3001, "地址不存在");
 
     private final Integer code;
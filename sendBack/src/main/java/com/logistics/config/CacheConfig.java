@@ -0,0 +1,118 @@
+package com.logistics.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.cache.CacheInvalidationBus;
+import com.logistics.cache.EmbeddedSharedCache;
+import com.logistics.cache.LocalCache;
+import com.logistics.cache.LocalCacheMetrics;
+import com.logistics.cache.ResponseBodyCache;
+import com.logistics.cache.SharedCache;
+import com.logistics.cache.TwoLevelCache;
+import com.logistics.vo.AddressVO;
+import com.logistics.vo.OrderImportVO;
+import com.logistics.vo.OrderSummaryVO;
+import com.logistics.vo.OrderVO;
+import com.logistics.vo.UserVO;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Configuration
+public class CacheConfig {
+
+    /**
+     * 公开单号查询结果缓存，key为快递单号
+     */
+    @Bean
+    public TwoLevelCache<String, OrderVO> trackingCache(
+            @Value("${cache.tracking.capacity:10000}") int capacity,
+            @Value("${cache.tracking.ttl:600000}") long ttl,
+            ObjectMapper objectMapper, ObjectProvider<SharedCache> sharedCache, CacheInvalidationBus invalidationBus) {
+        return invalidationBus.register(new TwoLevelCache<>("tracking", capacity, ttl, false, Function.identity(),
+                objectMapper.constructType(OrderVO.class), sharedCache.getIfAvailable(), invalidationBus));
+    }
+
+    /**
+     * 已签收订单追踪视图的预序列化响应体，key为快递单号，随trackingCache中的视图实例更新
+     */
+    @Bean
+    public ResponseBodyCache<String> trackingBodyCache(
+            @Value("${cache.tracking-body.capacity:5000}") int capacity,
+            @Value("${cache.tracking-body.ttl:600000}") long ttl,
+            ObjectMapper objectMapper) {
+        return new ResponseBodyCache<>("tracking-body", capacity, ttl, objectMapper);
+    }
+
+    /**
+     * 用户地址簿缓存，key为用户ID，value为该用户全部地址(默认优先、按创建时间倒序)，空闲一段时间后过期
+     */
+    @Bean
+    public TwoLevelCache<Long, List<AddressVO>> addressCache(
+            @Value("${cache.address.capacity:10000}") int capacity,
+            @Value("${cache.address.idle-timeout:1800000}") long idleTimeout,
+            ObjectMapper objectMapper, ObjectProvider<SharedCache> sharedCache, CacheInvalidationBus invalidationBus) {
+        return invalidationBus.register(new TwoLevelCache<>("address", capacity, idleTimeout, true, Long::valueOf,
+                objectMapper.getTypeFactory().constructCollectionType(List.class, AddressVO.class),
+                sharedCache.getIfAvailable(), invalidationBus));
+    }
+
+    /**
+     * 用户订单状态统计缓存，key为用户ID，计数变更提交后失效
+     */
+    @Bean
+    public TwoLevelCache<Long, OrderSummaryVO> orderSummaryCache(
+            @Value("${cache.order-summary.capacity:10000}") int capacity,
+            @Value("${cache.order-summary.ttl:600000}") long ttl,
+            ObjectMapper objectMapper, ObjectProvider<SharedCache> sharedCache, CacheInvalidationBus invalidationBus) {
+        return invalidationBus.register(new TwoLevelCache<>("order-summary", capacity, ttl, false, Long::valueOf,
+                objectMapper.constructType(OrderSummaryVO.class), sharedCache.getIfAvailable(), invalidationBus));
+    }
+
+    /**
+     * 用户信息缓存，key为用户ID，资料修改提交后失效
+     */
+    @Bean
+    public TwoLevelCache<Long, UserVO> userCache(
+            @Value("${cache.user.capacity:10000}") int capacity,
+            @Value("${cache.user.ttl:600000}") long ttl,
+            ObjectMapper objectMapper, ObjectProvider<SharedCache> sharedCache, CacheInvalidationBus invalidationBus) {
+        return invalidationBus.register(new TwoLevelCache<>("user", capacity, ttl, false, Long::valueOf,
+                objectMapper.constructType(UserVO.class), sharedCache.getIfAvailable(), invalidationBus));
+    }
+
+    /**
+     * 订单批量导入进度，key为用户ID:导入任务ID，只在处理导入的节点上可查
+     */
+    @Bean
+    public LocalCache<String, OrderImportVO> orderImportCache(
+            @Value("${cache.order-import.capacity:1000}") int capacity,
+            @Value("${cache.order-import.ttl:3600000}") long ttl) {
+        return new LocalCache<>("order-import", capacity, ttl);
+    }
+
+    /**
+     * 全部本地缓存的命中、淘汰、失效指标，只在监控端口提供
+     */
+    @Bean
+    public MeterBinder localCacheMetrics(ObjectProvider<LocalCache<?, ?>> caches) {
+        return registry -> caches.orderedStream().forEach(cache -> new LocalCacheMetrics(cache).bindTo(registry));
+    }
+
+    /**
+     * 进程内二级缓存替身，cache.l2.store=embedded 时启用；多节点部署需换成共享实现(如Redis)，提供 SharedCache Bean 即可
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "cache.l2", name = "store", havingValue = "embedded")
+    public EmbeddedSharedCache embeddedSharedCache(
+            @Value("${cache.l2.capacity:50000}") int capacity,
+            @Value("${cache.l2.ttl:300000}") long ttl,
+            ObjectMapper objectMapper) {
+        return new EmbeddedSharedCache(capacity, ttl, objectMapper);
+    }
+}
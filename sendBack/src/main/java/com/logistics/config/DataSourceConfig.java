@@ -0,0 +1,83 @@
+package com.logistics.config;
+
+import cn.hutool.core.util.StrUtil;
+import com.logistics.cache.LocalCache;
+import com.logistics.datasource.ReplicaReadAdvisor;
+import com.logistics.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * 主库连接沿用spring.datasource配置，从库地址见datasource.replica.urls，未配置从库时全部走主库
+     */
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(
+            DataSourceProperties properties,
+            LocalCache<Long, Boolean> recentWriterCache,
+            UserContext userContext,
+            @Value("${datasource.replica.urls:}") String[] replicaUrls,
+            @Value("${datasource.replica.username:${spring.datasource.username:}}") String replicaUsername,
+            @Value("${datasource.replica.password:${spring.datasource.password:}}") String replicaPassword,
+            @Value("${datasource.replica.max-lag:3000}") long maxLag,
+            @Value("${datasource.replica.lag-query:SHOW REPLICA STATUS}") String lagQuery) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (StrUtil.isBlank(url)) {
+                continue;
+            }
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url.trim())
+                    .username(replicaUsername)
+                    .password(replicaPassword)
+                    .build();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, maxLag, lagQuery,
+                recentWriterCache, userContext::getCurrentUserId);
+    }
+
+    /**
+     * 延迟到第一条SQL才真正取连接，此时只读事务标记已生效，路由才能看到
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * 写事务提交后的读己之写窗口，key为用户ID
+     */
+    @Bean
+    public LocalCache<Long, Boolean> recentWriterCache(
+            @Value("${datasource.read-your-writes.capacity:100000}") int capacity,
+            @Value("${datasource.read-your-writes.window:5000}") long window) {
+        return new LocalCache<>("read-your-writes", capacity, window);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static ReplicaReadAdvisor replicaReadAdvisor() {
+        return new ReplicaReadAdvisor();
+    }
+}
@@ -2,6 +2,7 @@ package com.logistics.config;
 
 import com.logistics.common.BusinessException;
 import com.logistics.common.ResultCode;
+import com.logistics.util.JwtPrincipal;
 import com.logistics.util.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -9,8 +10,11 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Component
 public class JwtInterceptor implements HandlerInterceptor {
@@ -32,8 +36,23 @@ public class JwtInterceptor implements HandlerInterceptor {
             "/error"
     );
 
+    // 预编译的白名单：精确路径、"/**"结尾的前缀、其余通配符模式
+    private final Set<String> exactPaths = new HashSet<>();
+    private final List<String> prefixPaths = new ArrayList<>();
+    private final List<String> wildcardPatterns = new ArrayList<>();
+
     public JwtInterceptor(JwtUtil jwtUtil) {
         this.jwtUtil = jwtUtil;
+        for (String pattern : whiteList) {
+            String base = pattern.endsWith("/**") ? pattern.substring(0, pattern.length() - 3) : null;
+            if (base != null && !pathMatcher.isPattern(base)) {
+                prefixPaths.add(base);
+            } else if (!pathMatcher.isPattern(pattern)) {
+                exactPaths.add(pattern);
+            } else {
+                wildcardPatterns.add(pattern);
+            }
+        }
     }
 
     @Override
@@ -43,13 +62,9 @@ public class JwtInterceptor implements HandlerInterceptor {
             return true;
         }
 
-        String requestPath = request.getRequestURI();
-
         // 检查白名单
-        for (String pattern : whiteList) {
-            if (pathMatcher.match(pattern, requestPath)) {
-                return true;
-            }
+        if (isWhiteListed(request.getRequestURI())) {
+            return true;
         }
 
         // 获取Token
@@ -60,11 +75,31 @@ public class JwtInterceptor implements HandlerInterceptor {
 
         String token = header.substring(7);
 
-        // 验证Token
-        if (!jwtUtil.validateToken(token)) {
+        // 验证Token，解析结果存入请求属性供UserContext读取
+        JwtPrincipal principal = jwtUtil.verifyToken(token);
+        if (principal == null) {
             throw new BusinessException(ResultCode.TOKEN_INVALID);
         }
+        request.setAttribute(UserContext.PRINCIPAL_ATTRIBUTE, principal);
 
         return true;
     }
+
+    private boolean isWhiteListed(String requestPath) {
+        if (exactPaths.contains(requestPath)) {
+            return true;
+        }
+        for (String prefix : prefixPaths) {
+            if (requestPath.startsWith(prefix)
+                    && (requestPath.length() == prefix.length() || requestPath.charAt(prefix.length()) == '/')) {
+                return true;
+            }
+        }
+        for (String pattern : wildcardPatterns) {
+            if (pathMatcher.match(pattern, requestPath)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
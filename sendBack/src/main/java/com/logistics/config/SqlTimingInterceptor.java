@@ -0,0 +1,190 @@
+package com.logistics.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按Mapper语句统计SQL耗时和影响行数并导出到Micrometer，超过阈值的语句按采样率打印慢SQL日志(含绑定参数)
+ */
+@Slf4j
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class SqlTimingInterceptor implements Interceptor {
+
+    private static final int MAX_PARAM_LENGTH = 64;
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean histogram;
+
+    private final long slowThresholdNanos;
+
+    private final double slowSampleRate;
+
+    // 每条语句的指标只注册一次，避免每次执行都拼装标签查找
+    private final Map<String, StatementMeters> meters = new ConcurrentHashMap<>();
+
+    public SqlTimingInterceptor(MeterRegistry meterRegistry,
+                                @Value("${sql.monitor.histogram:true}") boolean histogram,
+                                @Value("${sql.monitor.slow-threshold:500}") long slowThreshold,
+                                @Value("${sql.monitor.slow-sample-rate:1.0}") double slowSampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.histogram = histogram;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThreshold);
+        this.slowSampleRate = slowSampleRate;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        StatementMeters statementMeters = meters.computeIfAbsent(ms.getId(), id -> new StatementMeters(ms));
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            statementMeters.error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        int rows = rowCount(result);
+        statementMeters.success.record(elapsed, TimeUnit.NANOSECONDS);
+        statementMeters.rows.record(rows);
+
+        if (elapsed >= slowThresholdNanos) {
+            statementMeters.slow.increment();
+            if (slowSampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < slowSampleRate) {
+                logSlowQuery(invocation, ms, elapsed, rows);
+            }
+        }
+        return result;
+    }
+
+    private void logSlowQuery(Invocation invocation, MappedStatement ms, long elapsed, int rows) {
+        try {
+            Object[] args = invocation.getArgs();
+            Object parameter = args[1];
+            BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : ms.getBoundSql(parameter);
+            log.warn("慢SQL {}ms rows={} [{}] {} 参数: {}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), rows, ms.getId(),
+                    boundSql.getSql().replaceAll("\\s+", " "), boundParameters(ms.getConfiguration(), boundSql));
+        } catch (RuntimeException e) {
+            log.warn("慢SQL {}ms rows={} [{}] 参数解析失败: {}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), rows, ms.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 按DefaultParameterHandler的取值规则还原绑定参数，密码类字段脱敏，长字符串截断
+     */
+    private static List<Object> boundParameters(Configuration configuration, BoundSql boundSql) {
+        TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+        Object parameterObject = boundSql.getParameterObject();
+        List<Object> values = new ArrayList<>();
+        for (ParameterMapping mapping : boundSql.getParameterMappings()) {
+            if (mapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            String property = mapping.getProperty();
+            Object value;
+            if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (parameterObject == null) {
+                value = null;
+            } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
+                value = parameterObject;
+            } else {
+                value = configuration.newMetaObject(parameterObject).getValue(property);
+            }
+
+            if (value != null && property.toLowerCase().contains("password")) {
+                values.add("******");
+            } else if (value instanceof CharSequence text && text.length() > MAX_PARAM_LENGTH) {
+                values.add(text.subSequence(0, MAX_PARAM_LENGTH) + "...");
+            } else {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    private static int rowCount(Object result) {
+        if (result instanceof List<?> list) {
+            return list.size();
+        }
+        if (result instanceof Integer count) {
+            return count;
+        }
+        return 0;
+    }
+
+    private final class StatementMeters {
+
+        final Timer success;
+        final Timer error;
+        final DistributionSummary rows;
+        final Counter slow;
+
+        StatementMeters(MappedStatement ms) {
+            String statement = ms.getId();
+            String type = ms.getSqlCommandType().name().toLowerCase();
+            this.success = timer(statement, type, "success");
+            this.error = timer(statement, type, "error");
+            this.rows = DistributionSummary.builder("mybatis.statement.rows")
+                    .description("Mapper语句返回或影响的行数")
+                    .tags("statement", statement, "type", type)
+                    .publishPercentileHistogram(histogram)
+                    .register(meterRegistry);
+            this.slow = Counter.builder("mybatis.statement.slow")
+                    .description("超过慢SQL阈值的执行次数")
+                    .tags("statement", statement, "type", type)
+                    .register(meterRegistry);
+        }
+
+        private Timer timer(String statement, String type, String outcome) {
+            return Timer.builder("mybatis.statement")
+                    .description("Mapper语句执行耗时")
+                    .tags("statement", statement, "type", type, "outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram(histogram)
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.logistics.config;
 
+import com.logistics.util.JwtPrincipal;
 import com.logistics.util.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.stereotype.Component;
@@ -9,6 +10,8 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 @Component
 public class UserContext {
 
+    public static final String PRINCIPAL_ATTRIBUTE = UserContext.class.getName() + ".PRINCIPAL";
+
     private final JwtUtil jwtUtil;
 
     public UserContext(JwtUtil jwtUtil) {
@@ -16,29 +19,29 @@ public class UserContext {
     }
 
     public Long getCurrentUserId() {
-        String token = getTokenFromRequest();
-        if (token != null) {
-            return jwtUtil.getUserId(token);
-        }
-        return null;
+        JwtPrincipal principal = getPrincipal();
+        return principal != null ? principal.getUserId() : null;
     }
 
     public String getCurrentPhone() {
-        String token = getTokenFromRequest();
-        if (token != null) {
-            return jwtUtil.getPhone(token);
-        }
-        return null;
+        JwtPrincipal principal = getPrincipal();
+        return principal != null ? principal.getPhone() : null;
     }
 
-    private String getTokenFromRequest() {
+    private JwtPrincipal getPrincipal() {
         ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-        if (attributes != null) {
-            HttpServletRequest request = attributes.getRequest();
-            String header = request.getHeader("Authorization");
-            if (header != null && header.startsWith("Bearer ")) {
-                return header.substring(7);
-            }
+        if (attributes == null) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        // 拦截器已验签的请求直接复用解析结果
+        Object principal = request.getAttribute(PRINCIPAL_ATTRIBUTE);
+        if (principal instanceof JwtPrincipal) {
+            return (JwtPrincipal) principal;
+        }
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith("Bearer ")) {
+            return jwtUtil.verifyToken(header.substring(7));
         }
         return null;
     }
@@ -3,13 +3,20 @@ package com.logistics.controller;
 import com.logistics.common.Result;
 import com.logistics.dto.LogisticsNodeDTO;
 import com.logistics.service.LogisticsService;
+import com.logistics.stream.TrackingEventHub;
+import com.logistics.vo.LogisticsBatchResultVO;
 import com.logistics.vo.LogisticsNodeVO;
 import com.logistics.vo.LogisticsTrackingVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
 
 @Tag(name = "物流追踪", description = "物流追踪相关接口")
 @RestController
@@ -17,9 +24,11 @@ import org.springframework.web.bind.annotation.*;
 public class LogisticsController {
 
     private final LogisticsService logisticsService;
+    private final TrackingEventHub trackingEventHub;
 
-    public LogisticsController(LogisticsService logisticsService) {
+    public LogisticsController(LogisticsService logisticsService, TrackingEventHub trackingEventHub) {
         this.logisticsService = logisticsService;
+        this.trackingEventHub = trackingEventHub;
     }
 
     @Operation(summary = "获取物流信息", description = "根据订单ID获取物流追踪信息")
@@ -29,9 +38,24 @@ public class LogisticsController {
         return Result.success(logisticsService.getLogisticsByOrderId(orderId));
     }
 
+    @Operation(summary = "订阅物流推送", description = "SSE推送，连接后先推送snapshot，之后有新节点推送node、状态变更推送status")
+    @GetMapping(value = "/{orderId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLogistics(
+            @Parameter(description = "订单ID") @PathVariable Long orderId,
+            HttpServletRequest request) {
+        return trackingEventHub.subscribe(orderId, request.getRemoteAddr(),
+                () -> logisticsService.getLogisticsByOrderId(orderId));
+    }
+
     @Operation(summary = "添加物流节点", description = "为订单添加新的物流节点")
     @PostMapping
     public Result<LogisticsNodeVO> addLogisticsNode(@Valid @RequestBody LogisticsNodeDTO nodeDTO) {
         return Result.success(logisticsService.addLogisticsNode(nodeDTO));
     }
+
+    @Operation(summary = "批量添加物流节点", description = "批量提交扫描事件，逐条返回处理结果，单条失败不影响其余条目")
+    @PostMapping("/batch")
+    public Result<LogisticsBatchResultVO> addLogisticsNodes(@RequestBody List<LogisticsNodeDTO> nodeDTOs) {
+        return Result.success(logisticsService.addLogisticsNodes(nodeDTOs));
+    }
 }
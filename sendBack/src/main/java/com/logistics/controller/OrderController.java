@@ -1,18 +1,37 @@
 package com.logistics.controller;
 
+import com.logistics.cache.ResponseBodyCache;
 import com.logistics.common.Result;
 import com.logistics.config.UserContext;
 import com.logistics.dto.OrderCreateDTO;
+import com.logistics.dto.OrderExportQueryDTO;
 import com.logistics.dto.OrderQueryDTO;
 import com.logistics.dto.OrderStatusDTO;
+import com.logistics.dto.TrackingBatchQueryDTO;
 import com.logistics.service.OrderService;
+import com.logistics.stream.TrackingEventHub;
+import com.logistics.vo.OrderImportVO;
+import com.logistics.vo.OrderSummaryVO;
 import com.logistics.vo.OrderVO;
 import com.logistics.vo.PageVO;
+import com.logistics.vo.TrackingLookupVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
 
 @Tag(name = "订单管理", description = "订单管理相关接口")
 @RestController
@@ -21,10 +40,15 @@ public class OrderController {
 
     private final OrderService orderService;
     private final UserContext userContext;
+    private final TrackingEventHub trackingEventHub;
+    private final ResponseBodyCache<String> trackingBodyCache;
 
-    public OrderController(OrderService orderService, UserContext userContext) {
+    public OrderController(OrderService orderService, UserContext userContext, TrackingEventHub trackingEventHub,
+                           ResponseBodyCache<String> trackingBodyCache) {
         this.orderService = orderService;
         this.userContext = userContext;
+        this.trackingEventHub = trackingEventHub;
+        this.trackingBodyCache = trackingBodyCache;
     }
 
     @Operation(summary = "创建订单", description = "创建新的快递订单")
@@ -34,13 +58,60 @@ public class OrderController {
         return Result.success(orderService.createOrder(userId, orderCreateDTO));
     }
 
+    @Operation(summary = "批量导入订单", description = "请求体为CSV(text/csv，首行表头)或NDJSON(application/x-ndjson，每行一个订单)，"
+            + "边上传边按批写入，逐行返回失败原因；传importId可在导入过程中查询进度")
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", "application/json", "text/plain"})
+    public Result<OrderImportVO> importOrders(
+            @Parameter(description = "导入任务ID，不传则自动生成") @RequestParam(required = false) String importId,
+            @Parameter(description = "格式(csv/ndjson)，不传按Content-Type判断") @RequestParam(required = false) String format,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream content) {
+        Long userId = userContext.getCurrentUserId();
+        return Result.success(orderService.importOrders(userId, importId, format != null ? format : contentType, content));
+    }
+
+    @Operation(summary = "查询导入进度", description = "查询批量导入任务的进度和失败行，结束后保留一小时")
+    @GetMapping("/import/{importId}")
+    public Result<OrderImportVO> getImportProgress(@PathVariable String importId) {
+        Long userId = userContext.getCurrentUserId();
+        return Result.success(orderService.getImportProgress(userId, importId));
+    }
+
+    @Operation(summary = "导出订单及物流记录", description = "按状态和下单日期筛选，一次请求流式导出全部订单及其物流节点，"
+            + "CSV每个节点一行，NDJSON每个订单一行，末行为结束标记和订单数")
+    @GetMapping("/export")
+    public void exportOrders(@Valid OrderExportQueryDTO queryDTO, HttpServletResponse response) throws IOException {
+        Long userId = userContext.getCurrentUserId();
+        boolean ndjson = "ndjson".equals(queryDTO.getFormat());
+        String fileName = "orders-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
+                + (ndjson ? ".ndjson" : ".csv");
+        response.setContentType(ndjson ? "application/x-ndjson;charset=UTF-8" : "text/csv;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName);
+        try {
+            orderService.exportOrders(userId, queryDTO, response.getOutputStream());
+        } catch (RuntimeException e) {
+            // 尚未写出内容(如并发导出已满)时清掉下载头，错误按统一JSON格式返回
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+            throw e;
+        }
+    }
+
     @Operation(summary = "获取订单列表", description = "获取当前用户的订单列表，支持分页、状态筛选和关键词搜索")
     @GetMapping
-    public Result<PageVO<OrderVO>> getOrderList(OrderQueryDTO queryDTO) {
+    public Result<PageVO<OrderVO>> getOrderList(@Valid OrderQueryDTO queryDTO) {
         Long userId = userContext.getCurrentUserId();
         return Result.success(orderService.getOrderList(userId, queryDTO));
     }
 
+    @Operation(summary = "获取订单状态统计", description = "获取当前用户各状态的订单数，用于状态标签角标")
+    @GetMapping("/summary")
+    public Result<OrderSummaryVO> getOrderSummary() {
+        Long userId = userContext.getCurrentUserId();
+        return Result.success(orderService.getOrderSummary(userId));
+    }
+
     @Operation(summary = "获取订单详情", description = "根据ID获取订单详情")
     @GetMapping("/{id}")
     public Result<OrderVO> getOrderById(@PathVariable Long id) {
@@ -65,10 +136,35 @@ public class OrderController {
         return Result.success();
     }
 
-    @Operation(summary = "根据单号查询订单", description = "根据快递单号查询订单信息（无需登录）")
+    @Operation(summary = "根据单号查询订单", description = "根据快递单号查询订单信息（无需登录），已签收订单支持ETag协商缓存和gzip")
     @GetMapping("/tracking/{trackingNumber}")
-    public Result<OrderVO> getOrderByTrackingNumber(
-            @Parameter(description = "快递单号") @PathVariable String trackingNumber) {
-        return Result.success(orderService.getOrderByTrackingNumber(trackingNumber));
+    public ResponseEntity<?> getOrderByTrackingNumber(
+            @Parameter(description = "快递单号") @PathVariable String trackingNumber,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        OrderVO orderVO = orderService.getOrderByTrackingNumber(trackingNumber);
+        // 已签收的视图基本不再变化，直接输出缓存的字节；其余状态节点更新频繁，照常序列化
+        if (!"delivered".equals(orderVO.getStatus())) {
+            return ResponseEntity.ok(Result.success(orderVO));
+        }
+        return trackingBodyCache.getOrSerialize(trackingNumber, orderVO).toResponse(ifNoneMatch, acceptEncoding);
+    }
+
+    @Operation(summary = "批量根据单号查询订单", description = "一次查询多个快递单号，结果按单号返回，未找到的单号found为false（无需登录）")
+    @PostMapping("/tracking/batch")
+    public Result<Map<String, TrackingLookupVO>> getOrdersByTrackingNumbers(
+            @Valid @RequestBody TrackingBatchQueryDTO queryDTO) {
+        return Result.success(orderService.getOrdersByTrackingNumbers(queryDTO.getTrackingNumbers()));
+    }
+
+    @Operation(summary = "订阅单号物流推送", description = "SSE推送，连接后先推送snapshot，之后有新节点推送node、状态变更推送status（无需登录）")
+    @GetMapping(value = "/tracking/{trackingNumber}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamByTrackingNumber(
+            @Parameter(description = "快递单号") @PathVariable String trackingNumber,
+            HttpServletRequest request) {
+        // 先取订单ID登记订阅，快照在登记之后读取
+        Long orderId = orderService.getOrderByTrackingNumber(trackingNumber).getId();
+        return trackingEventHub.subscribe(orderId, request.getRemoteAddr(),
+                () -> orderService.getOrderByTrackingNumber(trackingNumber));
     }
 }
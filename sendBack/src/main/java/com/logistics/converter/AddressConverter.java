@@ -0,0 +1,52 @@
+package com.logistics.converter;
+
+import com.logistics.dto.AddressDTO;
+import com.logistics.entity.Address;
+import com.logistics.vo.AddressVO;
+
+/**
+ * 地址实体/DTO/VO转换
+ */
+public final class AddressConverter {
+
+    private AddressConverter() {
+    }
+
+    public static Address toEntity(AddressDTO dto) {
+        Address address = new Address();
+        copyToEntity(dto, address);
+        return address;
+    }
+
+    /**
+     * 用DTO覆盖实体的可编辑字段(含null值)，id/userId等不变
+     */
+    public static void copyToEntity(AddressDTO dto, Address address) {
+        address.setName(dto.getName());
+        address.setPhone(dto.getPhone());
+        address.setProvince(dto.getProvince());
+        address.setCity(dto.getCity());
+        address.setDistrict(dto.getDistrict());
+        address.setDetail(dto.getDetail());
+        address.setTag(dto.getTag());
+        address.setIsDefault(Boolean.TRUE.equals(dto.getIsDefault()) ? 1 : 0);
+        address.setType(dto.getType());
+    }
+
+    public static AddressVO toVO(Address address) {
+        AddressVO vo = new AddressVO();
+        vo.setId(address.getId());
+        vo.setName(address.getName());
+        vo.setPhone(address.getPhone());
+        vo.setProvince(address.getProvince());
+        vo.setCity(address.getCity());
+        vo.setDistrict(address.getDistrict());
+        vo.setDetail(address.getDetail());
+        vo.setFullAddress(address.getProvince() + address.getCity() + address.getDistrict() + address.getDetail());
+        vo.setTag(address.getTag());
+        vo.setIsDefault(address.getIsDefault() == 1);
+        vo.setType(address.getType());
+        vo.setCreatedAt(address.getCreatedAt());
+        return vo;
+    }
+}
@@ -0,0 +1,52 @@
+package com.logistics.converter;
+
+import com.logistics.dto.LogisticsNodeDTO;
+import com.logistics.entity.LogisticsNode;
+import com.logistics.vo.LogisticsNodeVO;
+
+/**
+ * 物流节点实体/DTO/VO转换
+ */
+public final class LogisticsNodeConverter {
+
+    private LogisticsNodeConverter() {
+    }
+
+    public static LogisticsNodeVO toVO(LogisticsNode node) {
+        LogisticsNodeVO vo = new LogisticsNodeVO();
+        vo.setId(node.getId());
+        vo.setOrderId(node.getOrderId());
+        vo.setTrackingNumber(node.getTrackingNumber());
+        vo.setTime(node.getTime());
+        vo.setLocation(node.getLocation());
+        vo.setStatus(node.getStatus());
+        vo.setDescription(node.getDescription());
+        vo.setIsActive(node.getIsActive() == 1);
+        return vo;
+    }
+
+    /**
+     * 订单详情中的节点，是否当前节点以订单上的当前节点指针为准，未回填指针的旧订单退回节点自身标记
+     */
+    public static LogisticsNodeVO toVO(LogisticsNode node, Long currentNodeId) {
+        LogisticsNodeVO vo = toVO(node);
+        if (currentNodeId != null) {
+            vo.setIsActive(currentNodeId.equals(node.getId()));
+        }
+        return vo;
+    }
+
+    /**
+     * 尚未入库的节点(预写模式)，没有id和快递单号
+     */
+    public static LogisticsNodeVO toVO(LogisticsNodeDTO dto) {
+        LogisticsNodeVO vo = new LogisticsNodeVO();
+        vo.setOrderId(dto.getOrderId());
+        vo.setTime(dto.getTime());
+        vo.setLocation(dto.getLocation());
+        vo.setStatus(dto.getStatus());
+        vo.setDescription(dto.getDescription());
+        vo.setIsActive(dto.getIsActive());
+        return vo;
+    }
+}
@@ -0,0 +1,93 @@
+package com.logistics.converter;
+
+import com.logistics.dto.OrderCreateDTO;
+import com.logistics.entity.LogisticsNode;
+import com.logistics.entity.Order;
+import com.logistics.vo.LogisticsNodeVO;
+import com.logistics.vo.OrderVO;
+
+import java.util.Map;
+
+/**
+ * 订单实体/DTO/VO转换，显式逐字段赋值，不走反射
+ */
+public final class OrderConverter {
+
+    private static final Map<String, String> STATUS_TEXT_MAP = Map.of(
+            "pending", "待取件",
+            "in_transit", "运输中",
+            "delivered", "已签收",
+            "exception", "异常"
+    );
+
+    private OrderConverter() {
+    }
+
+    public static String statusText(String status) {
+        return status != null ? STATUS_TEXT_MAP.getOrDefault(status, "未知") : "未知";
+    }
+
+    public static Order toEntity(OrderCreateDTO dto) {
+        Order order = new Order();
+        order.setCourierCompany(dto.getCourierCompany());
+        order.setCourierLogo(dto.getCourierLogo());
+        order.setItemName(dto.getItemName());
+        order.setSenderName(dto.getSenderName());
+        order.setSenderPhone(dto.getSenderPhone());
+        order.setSenderAddress(dto.getSenderAddress());
+        order.setReceiverName(dto.getReceiverName());
+        order.setReceiverPhone(dto.getReceiverPhone());
+        order.setReceiverAddress(dto.getReceiverAddress());
+        order.setEstimatedTime(dto.getEstimatedTime());
+        return order;
+    }
+
+    public static OrderVO toVO(Order order) {
+        OrderVO vo = new OrderVO();
+        vo.setId(order.getId());
+        vo.setTrackingNumber(order.getTrackingNumber());
+        vo.setCourierCompany(order.getCourierCompany());
+        vo.setCourierLogo(order.getCourierLogo());
+        vo.setStatus(order.getStatus());
+        vo.setStatusText(statusText(order.getStatus()));
+        vo.setItemName(order.getItemName());
+        vo.setSenderName(order.getSenderName());
+        vo.setSenderPhone(order.getSenderPhone());
+        vo.setSenderAddress(order.getSenderAddress());
+        vo.setReceiverName(order.getReceiverName());
+        vo.setReceiverPhone(order.getReceiverPhone());
+        vo.setReceiverAddress(order.getReceiverAddress());
+        vo.setEstimatedTime(order.getEstimatedTime());
+        vo.setCreatedAt(order.getCreatedAt());
+        vo.setCurrentNode(toCurrentNodeVO(order));
+        return vo;
+    }
+
+    /**
+     * 同步内存中订单的当前节点字段，与 OrderMapper.updateCurrentNode 的条件一致
+     */
+    public static void applyCurrentNode(Order order, LogisticsNode node) {
+        if (order.getCurrentNodeTime() != null && order.getCurrentNodeTime().isAfter(node.getTime())) {
+            return;
+        }
+        order.setCurrentNodeId(node.getId());
+        order.setCurrentNodeLocation(node.getLocation());
+        order.setCurrentNodeStatus(node.getStatus());
+        order.setCurrentNodeTime(node.getTime());
+    }
+
+    private static LogisticsNodeVO toCurrentNodeVO(Order order) {
+        if (order.getCurrentNodeId() == null) {
+            return null;
+        }
+        LogisticsNodeVO vo = new LogisticsNodeVO();
+        vo.setId(order.getCurrentNodeId());
+        vo.setOrderId(order.getId());
+        vo.setTrackingNumber(order.getTrackingNumber());
+        vo.setTime(order.getCurrentNodeTime());
+        vo.setLocation(order.getCurrentNodeLocation());
+        vo.setStatus(order.getCurrentNodeStatus());
+        vo.setIsActive(true);
+        return vo;
+    }
+}
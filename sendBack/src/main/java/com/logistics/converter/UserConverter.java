@@ -0,0 +1,23 @@
+package com.logistics.converter;
+
+import com.logistics.entity.User;
+import com.logistics.vo.UserVO;
+
+/**
+ * 用户实体/VO转换
+ */
+public final class UserConverter {
+
+    private UserConverter() {
+    }
+
+    public static UserVO toVO(User user) {
+        UserVO vo = new UserVO();
+        vo.setId(user.getId());
+        vo.setUsername(user.getUsername());
+        vo.setPhone(user.getPhone());
+        vo.setAvatar(user.getAvatar());
+        vo.setCreatedAt(user.getCreatedAt());
+        return vo;
+    }
+}
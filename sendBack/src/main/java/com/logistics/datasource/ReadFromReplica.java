@@ -0,0 +1,18 @@
+package com.logistics.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注不开启事务的只读方法，方法内的查询走从库；
+ * 只读事务使用 @Transactional(readOnly = true) 即可，无需再加此注解。
+ * 结果会回填缓存的读取不要走从库：读己之写只在本节点的窗口内有效，延迟的旧值一旦回填便会一直被读到
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFromReplica {
+}
@@ -0,0 +1,35 @@
+package com.logistics.datasource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.AbstractPointcutAdvisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+
+/**
+ * 为 {@link ReadFromReplica} 标注的类或方法织入从库读标记
+ */
+public class ReplicaReadAdvisor extends AbstractPointcutAdvisor {
+
+    private final Pointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(ReadFromReplica.class, true))
+            .union(new AnnotationMatchingPointcut(null, ReadFromReplica.class, true));
+
+    private final MethodInterceptor advice = invocation -> {
+        ReplicaRoutingDataSource.enterReplicaRead();
+        try {
+            return invocation.proceed();
+        } finally {
+            ReplicaRoutingDataSource.exitReplicaRead();
+        }
+    };
+
+    @Override
+    public Pointcut getPointcut() {
+        return pointcut;
+    }
+
+    @Override
+    public MethodInterceptor getAdvice() {
+        return advice;
+    }
+}
@@ -0,0 +1,230 @@
+package com.logistics.datasource;
+
+import com.logistics.cache.LocalCache;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 读写分离数据源：写操作和读写事务走主库，只读事务和 {@link ReadFromReplica} 标注的方法轮询健康的从库。
+ * 从库复制延迟超过上限或不可用时摘除并回退主库；用户提交写事务后的一段时间内，该用户的读也走主库(读己之写)。
+ * 需配合LazyConnectionDataSourceProxy使用，保证取连接时事务的只读标记已设置。
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    // 不开启事务的只读方法嵌套深度
+    private static final ThreadLocal<Integer> REPLICA_READ_DEPTH = new ThreadLocal<>();
+
+    private static final String[] LAG_COLUMNS = {"Seconds_Behind_Source", "Seconds_Behind_Master"};
+
+    private final HikariDataSource primary;
+
+    private final List<Replica> replicas;
+
+    private final long maxLagMillis;
+
+    private final String lagQuery;
+
+    private final LocalCache<Long, Boolean> recentWriters;
+
+    private final Supplier<Long> currentUserId;
+
+    // 健康从库快照，由巡检线程整体替换
+    private volatile Replica[] healthyReplicas;
+
+    private final AtomicInteger roundRobin = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaDataSources,
+                                    long maxLagMillis, String lagQuery,
+                                    LocalCache<Long, Boolean> recentWriters, Supplier<Long> currentUserId) {
+        this.primary = primary;
+        this.replicas = replicaDataSources.stream().map(Replica::new).toList();
+        this.maxLagMillis = maxLagMillis;
+        this.lagQuery = lagQuery;
+        this.recentWriters = recentWriters;
+        this.currentUserId = currentUserId;
+        // 启动时先全部视为可用，首次巡检后按实际状态摘除
+        this.healthyReplicas = replicas.toArray(new Replica[0]);
+    }
+
+    static void enterReplicaRead() {
+        Integer depth = REPLICA_READ_DEPTH.get();
+        REPLICA_READ_DEPTH.set(depth == null ? 1 : depth + 1);
+    }
+
+    static void exitReplicaRead() {
+        Integer depth = REPLICA_READ_DEPTH.get();
+        if (depth == null || depth <= 1) {
+            REPLICA_READ_DEPTH.remove();
+        } else {
+            REPLICA_READ_DEPTH.set(depth - 1);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = selectReplica();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            // 从库取连接失败立即摘除，本次回退主库，等巡检恢复
+            markUnhealthy(replica, "取连接失败: " + e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * 巡检从库可用性与复制延迟
+     */
+    @Scheduled(fixedDelayString = "${datasource.replica.check-interval:5000}",
+            initialDelayString = "${datasource.replica.check-interval:5000}")
+    public void checkReplicas() {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        for (Replica replica : replicas) {
+            try {
+                long lag = queryLagMillis(replica);
+                if (lag < 0) {
+                    markUnhealthy(replica, "复制已中断");
+                } else if (lag > maxLagMillis) {
+                    markUnhealthy(replica, "复制延迟 " + lag + "ms");
+                } else if (!replica.healthy) {
+                    replica.healthy = true;
+                    log.info("从库 {} 恢复使用，复制延迟 {}ms", replica.name, lag);
+                }
+            } catch (SQLException e) {
+                markUnhealthy(replica, "巡检失败: " + e.getMessage());
+            }
+        }
+        healthyReplicas = replicas.stream().filter(replica -> replica.healthy).toArray(Replica[]::new);
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private Replica selectReplica() {
+        if (replicas.isEmpty()) {
+            return null;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                trackWriter();
+                return null;
+            }
+        } else if (REPLICA_READ_DEPTH.get() == null) {
+            return null;
+        }
+
+        Long userId = currentUserId.get();
+        if (userId != null && recentWriters.get(userId, false) != null) {
+            return null;
+        }
+        Replica[] candidates = healthyReplicas;
+        if (candidates.length == 0) {
+            return null;
+        }
+        Replica replica = candidates[Math.floorMod(roundRobin.getAndIncrement(), candidates.length)];
+        log.debug("只读查询路由到从库 {}", replica.name);
+        return replica;
+    }
+
+    /**
+     * 读写事务提交后记录当前用户，窗口期内该用户的读走主库
+     */
+    private void trackWriter() {
+        Long userId = currentUserId.get();
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof WriterSynchronization) {
+                return;
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new WriterSynchronization(userId));
+    }
+
+    /**
+     * 复制延迟(毫秒)；非复制节点(如本地两个独立实例)返回0，复制中断返回-1
+     */
+    private long queryLagMillis(Replica replica) throws SQLException {
+        try (Connection connection = replica.dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                return 0L;
+            }
+            ResultSetMetaData metaData = rs.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                String label = metaData.getColumnLabel(i);
+                for (String column : LAG_COLUMNS) {
+                    if (column.equalsIgnoreCase(label)) {
+                        long seconds = rs.getLong(i);
+                        return rs.wasNull() ? -1L : seconds * 1000;
+                    }
+                }
+            }
+            throw new SQLException("延迟查询结果中没有复制延迟列: " + lagQuery);
+        }
+    }
+
+    private void markUnhealthy(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("从库 {} 暂停使用，只读查询回退主库: {}", replica.name, reason);
+        }
+        healthyReplicas = replicas.stream().filter(r -> r.healthy).toArray(Replica[]::new);
+    }
+
+    private final class WriterSynchronization implements TransactionSynchronization {
+
+        private final Long userId;
+
+        WriterSynchronization(Long userId) {
+            this.userId = userId;
+        }
+
+        @Override
+        public void afterCommit() {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    private static final class Replica {
+
+        final String name;
+        final HikariDataSource dataSource;
+        volatile boolean healthy = true;
+
+        Replica(HikariDataSource dataSource) {
+            this.name = dataSource.getPoolName();
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.logistics.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+@Schema(description = "订单导出请求")
+public class OrderExportQueryDTO {
+
+    @Pattern(regexp = "csv|ndjson", message = "导出格式只支持csv或ndjson")
+    @Schema(description = "导出格式(csv-每个物流节点一行,ndjson-每个订单一行并内嵌节点)", example = "csv")
+    private String format = "csv";
+
+    @Schema(description = "订单状态(pending,in_transit,delivered,exception)")
+    private String status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    @Schema(description = "下单日期起(含)", example = "2026-10-01")
+    private LocalDate startDate;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    @Schema(description = "下单日期止(含)", example = "2026-10-31")
+    private LocalDate endDate;
+}
@@ -1,16 +1,24 @@
 package com.logistics.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 @Data
 @Schema(description = "订单查询请求")
 public class OrderQueryDTO {
 
+    @NotNull(message = "页码不能为空")
+    @Min(value = 1, message = "页码最小为1")
     @Schema(description = "当前页码", example = "1")
     private Integer page = 1;
 
-    @Schema(description = "每页数量", example = "10")
+    @NotNull(message = "每页数量不能为空")
+    @Min(value = 1, message = "每页数量最小为1")
+    @Max(value = 100, message = "每页数量最大为100")
+    @Schema(description = "每页数量(1-100)", example = "10")
     private Integer pageSize = 10;
 
     @Schema(description = "订单状态(pending,in_transit,delivered,exception)")
@@ -18,4 +26,10 @@ public class OrderQueryDTO {
 
     @Schema(description = "搜索关键词(单号、收件人姓名、电话)")
     private String keyword;
+
+    @Schema(description = "分页游标，传入时(首页传空值)使用游标分页，忽略page且不统计总数")
+    private String cursor;
+
+    @Schema(description = "页码分页时是否统计总记录数", example = "true")
+    private Boolean withTotal = true;
 }
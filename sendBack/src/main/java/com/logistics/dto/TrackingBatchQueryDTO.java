@@ -0,0 +1,16 @@
+package com.logistics.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "批量查询快递单号请求")
+public class TrackingBatchQueryDTO {
+
+    @NotEmpty(message = "快递单号不能为空")
+    @Schema(description = "快递单号列表", example = "[\"SF1234567890\", \"YT9876543210\"]")
+    private List<String> trackingNumbers;
+}
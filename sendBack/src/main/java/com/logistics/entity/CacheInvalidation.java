@@ -0,0 +1,23 @@
+package com.logistics.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@TableName("t_cache_invalidation")
+@Schema(description = "缓存失效消息实体")
+public class CacheInvalidation {
+
+    @Schema(description = "消息ID")
+    private Long id;
+
+    @Schema(description = "缓存名称")
+    private String cacheName;
+
+    @Schema(description = "缓存key")
+    private String cacheKey;
+
+    @Schema(description = "发出消息的节点ID")
+    private String origin;
+}
@@ -0,0 +1,31 @@
+package com.logistics.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@TableName("t_logistics_node_archive")
+@Schema(description = "物流节点归档实体，每个订单一行")
+public class LogisticsNodeArchive {
+
+    @TableId(type = IdType.INPUT)
+    @Schema(description = "订单ID")
+    private Long orderId;
+
+    @Schema(description = "快递单号")
+    private String trackingNumber;
+
+    @Schema(description = "节点数")
+    private Integer nodeCount;
+
+    @Schema(description = "节点列表(gzip压缩的JSON)")
+    private byte[] nodes;
+
+    @Schema(description = "归档时间")
+    private LocalDateTime archivedAt;
+}
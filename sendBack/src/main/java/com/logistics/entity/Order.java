@@ -54,6 +54,27 @@ public class Order {
     @Schema(description = "用户ID")
     private Long userId;
 
+    // 当前物流节点冗余字段，只由 OrderMapper.updateCurrentNode 维护，updateById 不回写
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    @Schema(description = "当前物流节点ID")
+    private Long currentNodeId;
+
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    @Schema(description = "当前物流节点位置")
+    private String currentNodeLocation;
+
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    @Schema(description = "当前物流节点状态")
+    private String currentNodeStatus;
+
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    @Schema(description = "当前物流节点时间")
+    private LocalDateTime currentNodeTime;
+
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    @Schema(description = "物流节点是否已归档")
+    private Integer nodesArchived;
+
     @TableField(fill = FieldFill.INSERT)
     @Schema(description = "创建时间")
     private LocalDateTime createdAt;
@@ -0,0 +1,21 @@
+package com.logistics.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * 订单与物流节点连接查询的一行，每个热表节点一行，没有热表节点的订单一行且node为null
+ */
+@Data
+@Schema(description = "订单节点连接行")
+public class OrderNodeRow {
+
+    @Schema(description = "订单")
+    private Order order;
+
+    @Schema(description = "热表中的物流节点")
+    private LogisticsNode node;
+
+    @Schema(description = "归档的节点列表(gzip压缩的JSON)，未归档时为null")
+    private byte[] archivedNodes;
+}
@@ -0,0 +1,20 @@
+package com.logistics.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@TableName("t_order_status_count")
+@Schema(description = "用户订单状态计数实体")
+public class OrderStatusCount {
+
+    @Schema(description = "用户ID")
+    private Long userId;
+
+    @Schema(description = "订单状态")
+    private String status;
+
+    @Schema(description = "订单数")
+    private Long orderCount;
+}
@@ -0,0 +1,33 @@
+package com.logistics.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@TableName("t_outbox_event")
+@Schema(description = "变更事件实体")
+public class OutboxEvent {
+
+    @Schema(description = "事件ID，单调递增，下游按此去重和记录消费位置")
+    private Long id;
+
+    @Schema(description = "聚合类型: order/logistics_node")
+    private String aggregateType;
+
+    @Schema(description = "聚合ID(订单ID)")
+    private Long aggregateId;
+
+    @Schema(description = "事件类型")
+    private String eventType;
+
+    @JsonRawValue
+    @Schema(description = "事件内容(JSON)")
+    private String payload;
+
+    @Schema(description = "创建时间")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,396 @@
+package com.logistics.journal;
+
+import cn.hutool.core.exceptions.ExceptionUtil;
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.common.BusinessException;
+import com.logistics.common.ResultCode;
+import com.logistics.dto.LogisticsNodeDTO;
+import com.logistics.entity.LogisticsNode;
+import com.logistics.entity.Order;
+import com.logistics.mapper.IngestCheckpointMapper;
+import com.logistics.mapper.IngestDeadLetterMapper;
+import com.logistics.mapper.OrderMapper;
+import com.logistics.service.impl.LogisticsNodeWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 物流节点预写模式：事件先追加到本地日志并刷盘后即返回，后台按批写入数据库。
+ * 数据库写入与检查点(t_ingest_checkpoint)在同一事务内提交，重启时回放检查点之后的记录。
+ * 数据库可用但仍无法入库的事件(订单已删除、数据异常等)转入 t_ingest_dead_letter，不阻塞后续事件。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "logistics.journal", name = "enabled", havingValue = "true")
+public class JournaledNodeWriter {
+
+    // 撤销记录的首字节，事件记录是JSON，不会以0开头
+    private static final byte CANCEL = 0;
+
+    private static final int MAX_REASON_LENGTH = 500;
+
+    private final LogisticsNodeWriter logisticsNodeWriter;
+    private final OrderMapper orderMapper;
+    private final IngestCheckpointMapper checkpointMapper;
+    private final IngestDeadLetterMapper deadLetterMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${logistics.journal.name:node-journal}")
+    private String name;
+
+    @Value("${logistics.journal.dir:data/journal}")
+    private String dir;
+
+    @Value("${logistics.journal.segment-size:67108864}")
+    private int segmentSize;
+
+    @Value("${logistics.journal.fsync-interval:2}")
+    private long fsyncInterval;
+
+    @Value("${logistics.journal.durable-timeout:5000}")
+    private long durableTimeout;
+
+    @Value("${logistics.journal.max-pending:100000}")
+    private int maxPending;
+
+    @Value("${logistics.journal.offer-timeout:200}")
+    private long offerTimeout;
+
+    @Value("${logistics.journal.drain-batch-size:500}")
+    private int drainBatchSize;
+
+    private NodeJournal journal;
+
+    // 待入库事件，顺序与日志序号一致
+    private final LinkedBlockingQueue<PendingEvent> queue = new LinkedBlockingQueue<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    private final ReentrantLock pendingLock = new ReentrantLock();
+    private final Condition notFull = pendingLock.newCondition();
+    private int pending;
+
+    private volatile boolean running;
+    private Thread flusher;
+    private Thread drainer;
+
+    public JournaledNodeWriter(LogisticsNodeWriter logisticsNodeWriter, OrderMapper orderMapper,
+                               IngestCheckpointMapper checkpointMapper, IngestDeadLetterMapper deadLetterMapper,
+                               TransactionTemplate transactionTemplate, ObjectMapper objectMapper) {
+        this.logisticsNodeWriter = logisticsNodeWriter;
+        this.orderMapper = orderMapper;
+        this.checkpointMapper = checkpointMapper;
+        this.deadLetterMapper = deadLetterMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Long checkpoint = checkpointMapper.selectLastSeq(name);
+        journal = new NodeJournal(Paths.get(dir), segmentSize);
+        journal.open(checkpoint != null ? checkpoint : 0L, this::replay);
+        pending = queue.size();
+        if (pending > 0) {
+            log.info("预写日志回放 {} 条未入库的物流事件", pending);
+        }
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "node-journal-fsync");
+        flusher.setDaemon(true);
+        flusher.start();
+        drainer = new Thread(this::drainLoop, "node-journal-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * 追加事件，日志刷盘后返回；积压超过上限时等待offer-timeout后拒绝。
+     * 抛出异常时事件不会入库，调用方可以重试
+     */
+    public void append(LogisticsNodeDTO nodeDTO) {
+        if (!running) {
+            throw new BusinessException(ResultCode.SERVICE_BUSY);
+        }
+        // 订单不存在时同步失败，不进入日志
+        if (!orderMapper.exists(new LambdaQueryWrapper<Order>().eq(Order::getId, nodeDTO.getOrderId()))) {
+            throw new BusinessException(ResultCode.ORDER_NOT_FOUND);
+        }
+        reserve();
+
+        PendingEvent event;
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(nodeDTO);
+            appendLock.lock();
+            try {
+                event = new PendingEvent(journal.append(payload), nodeDTO, payload);
+                queue.add(event);
+            } finally {
+                appendLock.unlock();
+            }
+        } catch (IOException e) {
+            release(1);
+            log.error("写入预写日志失败", e);
+            throw new BusinessException("写入物流事件失败");
+        }
+
+        boolean durable;
+        try {
+            durable = journal.awaitDurable(event.seq, durableTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            durable = false;
+        }
+        if (!durable) {
+            if (cancel(event)) {
+                throw new BusinessException(ResultCode.SERVICE_BUSY);
+            }
+            // 已被后台取走入库，撤销不了；入库事务会重试到提交或转入死信，按成功返回以免调用方重试产生重复节点
+            log.warn("物流事件 seq={} 等待刷盘超时，已由后台入库", event.seq);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        running = false;
+        drainer.join(TimeUnit.SECONDS.toMillis(30));
+        LockSupport.unpark(flusher);
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+        journal.close();
+    }
+
+    private void reserve() {
+        pendingLock.lock();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(offerTimeout);
+            while (pending >= maxPending) {
+                if (nanos <= 0) {
+                    throw new BusinessException(ResultCode.SERVICE_BUSY);
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            pending++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ResultCode.SERVICE_BUSY);
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    private void release(int count) {
+        pendingLock.lock();
+        try {
+            pending -= count;
+            notFull.signalAll();
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (running) {
+            journal.sync();
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(fsyncInterval));
+        }
+        journal.sync();
+    }
+
+    /**
+     * 撤销尚未被后台取走的事件，并追加撤销记录，重启回放时一并跳过；已被取走时返回false
+     */
+    private boolean cancel(PendingEvent event) {
+        if (!queue.remove(event)) {
+            return false;
+        }
+        release(1);
+        try {
+            journal.append(ByteBuffer.allocate(1 + 8).put(CANCEL).putLong(event.seq).array());
+        } catch (IOException e) {
+            // 原记录若已落盘，重启回放时会入库
+            log.error("写入撤销记录失败 seq={}", event.seq, e);
+        }
+        return true;
+    }
+
+    private void replay(long seq, byte[] payload) {
+        if (payload.length > 0 && payload[0] == CANCEL) {
+            long cancelled = ByteBuffer.wrap(payload, 1, 8).getLong();
+            queue.removeIf(event -> event.seq == cancelled);
+            return;
+        }
+        queue.add(new PendingEvent(seq, decode(seq, payload), payload));
+    }
+
+    private void drainLoop() {
+        List<PendingEvent> batch = new ArrayList<>(drainBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.clear();
+                batch.add(first);
+                queue.drainTo(batch, drainBatchSize - 1);
+                if (!flushWithRetry(batch)) {
+                    // 停机时数据库不可用，剩余事件留在日志中等待下次启动回放
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 数据库不可用或遇到死锁、超时等临时错误时退避重试；数据库可用而写入仍失败时，
+     * 整批拆成逐条入库，单条失败的事件转入死信，不阻塞后续事件
+     */
+    private boolean flushWithRetry(List<PendingEvent> batch) throws InterruptedException {
+        long backoff = 100;
+        while (true) {
+            String error;
+            try {
+                flush(batch);
+                return true;
+            } catch (RuntimeException e) {
+                error = e.getMessage();
+                if (!isTransient(e) && databaseAvailable()) {
+                    if (batch.size() > 1) {
+                        return flushEach(batch);
+                    }
+                    try {
+                        deadLetter(batch.get(0), e);
+                        return true;
+                    } catch (RuntimeException deadLetterError) {
+                        error = deadLetterError.getMessage();
+                    }
+                }
+            }
+            log.error("物流事件入库失败，{}ms后重试: {}", backoff, error);
+            if (!running) {
+                return false;
+            }
+            Thread.sleep(backoff);
+            backoff = Math.min(backoff * 2, 5000);
+        }
+    }
+
+    private boolean flushEach(List<PendingEvent> batch) throws InterruptedException {
+        for (PendingEvent event : batch) {
+            if (!flushWithRetry(List.of(event))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void flush(List<PendingEvent> batch) {
+        long lastSeq = batch.get(batch.size() - 1).seq;
+        for (PendingEvent event : batch) {
+            if (event.nodeDTO == null) {
+                throw new IllegalStateException("预写日志记录无法解析 seq=" + event.seq);
+            }
+        }
+        // 按订单聚合写入，同一订单内保持原有顺序
+        List<PendingEvent> sorted = batch.stream()
+                .sorted(Comparator.comparing(e -> e.nodeDTO.getOrderId()))
+                .toList();
+        List<LogisticsNodeDTO> nodeDTOs = sorted.stream().map(e -> e.nodeDTO).toList();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<LogisticsNode> written = logisticsNodeWriter.writeBatch(nodeDTOs);
+            for (int i = 0; i < written.size(); i++) {
+                if (written.get(i) == null) {
+                    // 追加时订单存在，入库前被删除
+                    PendingEvent event = sorted.get(i);
+                    log.warn("物流事件 seq={} 的订单 {} 已不存在，转入死信", event.seq, event.nodeDTO.getOrderId());
+                    deadLetterMapper.upsert(name, event.seq, event.payloadText(), ResultCode.ORDER_NOT_FOUND.getMessage());
+                }
+            }
+            checkpointMapper.upsert(name, lastSeq);
+        });
+
+        release(batch.size());
+        journal.deleteUpTo(lastSeq);
+    }
+
+    private void deadLetter(PendingEvent event, RuntimeException cause) {
+        log.error("物流事件 seq={} 无法入库，转入死信", event.seq, cause);
+        String reason = StrUtil.sub(ExceptionUtil.getSimpleMessage(cause), 0, MAX_REASON_LENGTH);
+        transactionTemplate.executeWithoutResult(status -> {
+            deadLetterMapper.upsert(name, event.seq, event.payloadText(), reason);
+            checkpointMapper.upsert(name, event.seq);
+        });
+        release(1);
+        journal.deleteUpTo(event.seq);
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException || e instanceof RecoverableDataAccessException;
+    }
+
+    private boolean databaseAvailable() {
+        try {
+            checkpointMapper.selectLastSeq(name);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 无法解析的记录保留在队列中按序处理，入库时转入死信
+     */
+    private LogisticsNodeDTO decode(long seq, byte[] payload) {
+        try {
+            return objectMapper.readValue(payload, LogisticsNodeDTO.class);
+        } catch (IOException e) {
+            log.error("预写日志记录无法解析 seq={}: {}", seq, e.getMessage());
+            return null;
+        }
+    }
+
+    private static class PendingEvent {
+
+        private final long seq;
+
+        private final LogisticsNodeDTO nodeDTO;
+
+        private final byte[] payload;
+
+        PendingEvent(long seq, LogisticsNodeDTO nodeDTO, byte[] payload) {
+            this.seq = seq;
+            this.nodeDTO = nodeDTO;
+            this.payload = payload;
+        }
+
+        String payloadText() {
+            return new String(payload, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.logistics.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 基于内存映射文件的追加写日志。
+ * 记录格式: [int 长度][long 序号][payload][int CRC32]，长度为0表示段内数据结束。
+ * 段文件以该段第一条记录的序号命名，写满后滚动到新段；sync()批量刷盘，写入方通过awaitDurable()等待落盘。
+ * 使用ReentrantLock而非synchronized，虚拟线程在等待刷盘时不会钉住载体线程。
+ */
+@Slf4j
+public class NodeJournal implements Closeable {
+
+    private static final String SUFFIX = ".log";
+    private static final int HEADER_SIZE = 4 + 8;
+    private static final int TRAILER_SIZE = 4;
+
+    private final Path dir;
+    private final int segmentSize;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long nextSeq;
+
+    // 保护写入位置、当前段和writtenSeq
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // 已写入内存映射的最大序号
+    private long writtenSeq;
+
+    // 保护durableSeq
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition durableAdvanced = durableLock.newCondition();
+    // 已刷盘的最大序号
+    private long durableSeq;
+
+    public NodeJournal(Path dir, int segmentSize) {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * 打开日志并回放序号大于afterSeq的记录，之后的追加从已有最大序号继续
+     */
+    public void open(long afterSeq, BiConsumer<Long, byte[]> replay) throws IOException {
+        writeLock.lock();
+        try {
+            doOpen(afterSeq, replay);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void doOpen(long afterSeq, BiConsumer<Long, byte[]> replay) throws IOException {
+        Files.createDirectories(dir);
+        long maxSeq = afterSeq;
+        List<Path> segments = listSegments();
+        for (int i = 0; i < segments.size(); i++) {
+            boolean last = i == segments.size() - 1;
+            try (FileChannel ch = FileChannel.open(segments.get(i), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, ch.size());
+                while (true) {
+                    Long seq = readRecord(buf, afterSeq, replay);
+                    if (seq == null) {
+                        break;
+                    }
+                    maxSeq = Math.max(maxSeq, seq);
+                }
+                if (last && buf.remaining() >= HEADER_SIZE + TRAILER_SIZE + 1) {
+                    // 继续在最后一段的有效数据之后追加，清掉可能存在的半条记录
+                    int position = buf.position();
+                    buf.putInt(0);
+                    buf.position(position);
+                    channel = FileChannel.open(segments.get(i), StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+                    buffer.position(position);
+                }
+            }
+        }
+        nextSeq = maxSeq + 1;
+        writtenSeq = maxSeq;
+        durableSeq = maxSeq;
+        if (buffer == null) {
+            roll();
+        }
+    }
+
+    /**
+     * 追加一条记录并返回序号，只写入内存映射，落盘需调用sync()
+     */
+    public long append(byte[] payload) throws IOException {
+        int recordSize = HEADER_SIZE + payload.length + TRAILER_SIZE;
+        if (recordSize + 4 > segmentSize) {
+            throw new IOException("journal record too large: " + payload.length);
+        }
+        writeLock.lock();
+        try {
+            return doAppend(payload, recordSize);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private long doAppend(byte[] payload, int recordSize) throws IOException {
+        if (buffer.remaining() < recordSize + 4) {
+            roll();
+        }
+        long seq = nextSeq++;
+
+        int start = buffer.position();
+        buffer.position(start + 4);
+        buffer.putLong(seq);
+        buffer.put(payload);
+        buffer.putInt(checksum(seq, payload));
+        // 最后写长度，保证读到长度时记录已完整
+        buffer.putInt(start, payload.length);
+        writtenSeq = seq;
+        return seq;
+    }
+
+    /**
+     * 把已写入的记录刷盘，由后台线程周期调用实现批量fsync
+     */
+    public void sync() {
+        MappedByteBuffer target;
+        long seq;
+        writeLock.lock();
+        try {
+            target = buffer;
+            seq = writtenSeq;
+        } finally {
+            writeLock.unlock();
+        }
+        durableLock.lock();
+        try {
+            if (seq <= durableSeq) {
+                return;
+            }
+        } finally {
+            durableLock.unlock();
+        }
+        target.force();
+        durableLock.lock();
+        try {
+            if (seq > durableSeq) {
+                durableSeq = seq;
+                durableAdvanced.signalAll();
+            }
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    public boolean awaitDurable(long seq, long timeoutMillis) throws InterruptedException {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        durableLock.lock();
+        try {
+            while (durableSeq < seq) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = durableAdvanced.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    /**
+     * 删除所有记录序号都不大于seq的段，当前写入段保留
+     */
+    public void deleteUpTo(long seq) {
+        try {
+            List<Path> segments = listSegments();
+            for (int i = 0; i + 1 < segments.size(); i++) {
+                long nextFirstSeq = firstSeq(segments.get(i + 1));
+                if (nextFirstSeq - 1 > seq) {
+                    break;
+                }
+                Files.deleteIfExists(segments.get(i));
+            }
+        } catch (IOException e) {
+            log.warn("清理预写日志段失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (buffer != null) {
+                buffer.force();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void roll() throws IOException {
+        if (buffer != null) {
+            // 旧段先刷盘，之后sync()只需处理当前段
+            buffer.force();
+            channel.close();
+        }
+        Path path = dir.resolve(String.format("%020d%s", nextSeq, SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    private static Long readRecord(MappedByteBuffer buf, long afterSeq, BiConsumer<Long, byte[]> replay) {
+        int start = buf.position();
+        if (buf.remaining() < HEADER_SIZE + TRAILER_SIZE) {
+            return null;
+        }
+        int length = buf.getInt();
+        if (length <= 0 || length > buf.remaining() - 8 - TRAILER_SIZE) {
+            buf.position(start);
+            return null;
+        }
+        long seq = buf.getLong();
+        byte[] payload = new byte[length];
+        buf.get(payload);
+        int storedCrc = buf.getInt();
+
+        if (checksum(seq, payload) != storedCrc) {
+            // 未写完整的尾部记录
+            buf.position(start);
+            return null;
+        }
+        if (seq > afterSeq) {
+            replay.accept(seq, payload);
+        }
+        return seq;
+    }
+
+    private static int checksum(long seq, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(8).putLong(seq).array());
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> p.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .forEach(segments::add);
+        }
+        return segments;
+    }
+
+    private static long firstSeq(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,19 @@
+package com.logistics.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * 查询InnoDB中仍在运行的事务，用于判断自增ID空洞是否还可能被提交；需要PROCESS权限
+ */
+@Mapper
+public interface ActiveTransactionMapper {
+
+    /**
+     * 运行最久的事务已持续的毫秒数，不含当前连接自己的事务，没有时返回-1。
+     * trx_started精确到秒，结果偏大
+     */
+    @Select("SELECT COALESCE(MAX(TIMESTAMPDIFF(MICROSECOND, trx_started, NOW())) DIV 1000, -1) "
+            + "FROM information_schema.innodb_trx WHERE trx_mysql_thread_id <> CONNECTION_ID()")
+    long selectLongestRunningMillis();
+}
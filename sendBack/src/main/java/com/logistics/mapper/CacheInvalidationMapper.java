@@ -0,0 +1,43 @@
+package com.logistics.mapper;
+
+import com.logistics.entity.CacheInvalidation;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Mapper
+public interface CacheInvalidationMapper {
+
+    @Insert("<script>"
+            + "INSERT INTO t_cache_invalidation (cache_name, cache_key, origin) VALUES "
+            + "<foreach collection='rows' item='r' separator=','>(#{r.cacheName}, #{r.cacheKey}, #{r.origin})</foreach>"
+            + "</script>")
+    int insertBatch(@Param("rows") Collection<CacheInvalidation> rows);
+
+    @Select("SELECT COALESCE(MAX(id), 0) FROM t_cache_invalidation")
+    long selectMaxId();
+
+    @Select("SELECT id, cache_name, cache_key, origin FROM t_cache_invalidation "
+            + "WHERE id > #{afterId} ORDER BY id LIMIT #{limit}")
+    List<CacheInvalidation> selectAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 按ID区间补查，key为起始ID，value为结束ID，两端都包含
+     */
+    @Select("<script>"
+            + "SELECT id, cache_name, cache_key, origin FROM t_cache_invalidation WHERE "
+            + "<foreach collection='ranges' index='from' item='to' separator=' OR '>(id BETWEEN #{from} AND #{to})</foreach> "
+            + "ORDER BY id"
+            + "</script>")
+    List<CacheInvalidation> selectInRanges(@Param("ranges") Map<Long, Long> ranges);
+
+    @Delete("DELETE FROM t_cache_invalidation WHERE created_at < #{before} LIMIT #{limit}")
+    int deleteBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -0,0 +1,17 @@
+package com.logistics.mapper;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+@Mapper
+public interface IngestCheckpointMapper {
+
+    @Select("SELECT last_seq FROM t_ingest_checkpoint WHERE name = #{name}")
+    Long selectLastSeq(@Param("name") String name);
+
+    @Insert("INSERT INTO t_ingest_checkpoint (name, last_seq) VALUES (#{name}, #{lastSeq}) "
+            + "ON DUPLICATE KEY UPDATE last_seq = VALUES(last_seq)")
+    int upsert(@Param("name") String name, @Param("lastSeq") long lastSeq);
+}
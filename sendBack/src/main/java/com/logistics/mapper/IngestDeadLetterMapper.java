@@ -0,0 +1,17 @@
+package com.logistics.mapper;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+@Mapper
+public interface IngestDeadLetterMapper {
+
+    /**
+     * 重放时同一序号可能再次失败，已存在时只更新原因
+     */
+    @Insert("INSERT INTO t_ingest_dead_letter (name, seq, payload, reason) VALUES (#{name}, #{seq}, #{payload}, #{reason}) "
+            + "ON DUPLICATE KEY UPDATE reason = VALUES(reason)")
+    int upsert(@Param("name") String name, @Param("seq") long seq,
+               @Param("payload") String payload, @Param("reason") String reason);
+}
@@ -0,0 +1,26 @@
+package com.logistics.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.logistics.entity.LogisticsNodeArchive;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface LogisticsNodeArchiveMapper extends BaseMapper<LogisticsNodeArchive> {
+
+    /**
+     * 批量写入归档，重复归档同一订单时覆盖
+     */
+    @Insert("<script>"
+            + "INSERT INTO t_logistics_node_archive (order_id, tracking_number, node_count, nodes) VALUES "
+            + "<foreach collection='archives' item='a' separator=','>"
+            + "(#{a.orderId}, #{a.trackingNumber}, #{a.nodeCount}, #{a.nodes})"
+            + "</foreach>"
+            + " ON DUPLICATE KEY UPDATE tracking_number = VALUES(tracking_number), node_count = VALUES(node_count), "
+            + "nodes = VALUES(nodes), archived_at = CURRENT_TIMESTAMP"
+            + "</script>")
+    int upsertBatch(@Param("archives") List<LogisticsNodeArchive> archives);
+}
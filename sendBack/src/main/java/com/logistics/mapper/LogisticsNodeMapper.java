@@ -2,8 +2,25 @@ package com.logistics.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.logistics.entity.LogisticsNode;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 @Mapper
 public interface LogisticsNodeMapper extends BaseMapper<LogisticsNode> {
+
+    /**
+     * 多行批量插入，回填自增ID
+     */
+    @Insert("<script>"
+            + "INSERT INTO t_logistics_node (order_id, tracking_number, time, location, status, description, is_active) VALUES "
+            + "<foreach collection='nodes' item='n' separator=','>"
+            + "(#{n.orderId}, #{n.trackingNumber}, #{n.time}, #{n.location}, #{n.status}, #{n.description}, #{n.isActive})"
+            + "</foreach>"
+            + "</script>")
+    @Options(useGeneratedKeys = true, keyProperty = "id", keyColumn = "id")
+    int insertBatch(@Param("nodes") List<LogisticsNode> nodes);
 }
@@ -1,9 +1,112 @@
 package com.logistics.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.logistics.entity.LogisticsNode;
 import com.logistics.entity.Order;
+import com.logistics.entity.OrderNodeRow;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Mapper
 public interface OrderMapper extends BaseMapper<Order> {
+
+    /**
+     * 将节点设为订单的当前节点，仅当其时间不早于现有当前节点时生效，乱序到达的旧节点不会覆盖
+     */
+    @Update("UPDATE t_order SET current_node_id = #{node.id}, current_node_location = #{node.location}, "
+            + "current_node_status = #{node.status}, current_node_time = #{node.time} "
+            + "WHERE id = #{node.orderId} AND (current_node_time IS NULL OR current_node_time <= #{node.time})")
+    int updateCurrentNode(@Param("node") LogisticsNode node);
+
+    /**
+     * 多行批量插入，回填自增ID；当前节点的位置、状态、时间随行写入，节点ID由 updateCurrentNodeIds 补上
+     */
+    @Insert("<script>"
+            + "INSERT INTO t_order (tracking_number, courier_company, courier_logo, status, item_name, "
+            + "sender_name, sender_phone, sender_address, receiver_name, receiver_phone, receiver_address, "
+            + "estimated_time, user_id, current_node_location, current_node_status, current_node_time) VALUES "
+            + "<foreach collection='orders' item='o' separator=','>"
+            + "(#{o.trackingNumber}, #{o.courierCompany}, #{o.courierLogo}, #{o.status}, #{o.itemName}, "
+            + "#{o.senderName}, #{o.senderPhone}, #{o.senderAddress}, #{o.receiverName}, #{o.receiverPhone}, "
+            + "#{o.receiverAddress}, #{o.estimatedTime}, #{o.userId}, #{o.currentNodeLocation}, "
+            + "#{o.currentNodeStatus}, #{o.currentNodeTime})"
+            + "</foreach>"
+            + "</script>")
+    @Options(useGeneratedKeys = true, keyProperty = "id", keyColumn = "id")
+    int insertBatch(@Param("orders") List<Order> orders);
+
+    /**
+     * 批量回填当前节点ID，每个订单一个节点，仅用于刚插入的订单
+     */
+    @Update("<script>"
+            + "UPDATE t_order SET current_node_id = CASE id "
+            + "<foreach collection='nodes' item='n'>WHEN #{n.orderId} THEN #{n.id} </foreach>"
+            + "END WHERE id IN "
+            + "<foreach collection='nodes' item='n' open='(' separator=',' close=')'>#{n.orderId}</foreach>"
+            + "</script>")
+    int updateCurrentNodeIds(@Param("nodes") List<LogisticsNode> nodes);
+
+    /**
+     * 流式扫描用户订单并连接热表节点和归档，同一订单的行相邻；需在事务内遍历完并关闭。
+     * fetchSize为Integer.MIN_VALUE时MySQL驱动逐行读取，不把结果集整体载入内存，遍历期间该连接不能执行其他语句
+     */
+    @Select("<script>"
+            + "SELECT o.id, o.tracking_number, o.courier_company, o.courier_logo, o.status, o.item_name, "
+            + "o.sender_name, o.sender_phone, o.sender_address, o.receiver_name, o.receiver_phone, o.receiver_address, "
+            + "o.estimated_time, o.user_id, o.current_node_id, o.current_node_location, o.current_node_status, "
+            + "o.current_node_time, o.nodes_archived, o.created_at, "
+            + "n.id AS n_id, n.time AS n_time, n.location AS n_location, n.status AS n_status, "
+            + "n.description AS n_description, n.is_active AS n_is_active, a.nodes AS archived_nodes "
+            + "FROM t_order o "
+            + "LEFT JOIN t_logistics_node n ON n.order_id = o.id "
+            + "LEFT JOIN t_logistics_node_archive a ON a.order_id = o.id "
+            + "WHERE o.user_id = #{userId} AND o.deleted = 0 "
+            + "<if test='status != null'>AND o.status = #{status} </if>"
+            + "<if test='from != null'>AND o.created_at &gt;= #{from} </if>"
+            + "<if test='to != null'>AND o.created_at &lt; #{to} </if>"
+            + "ORDER BY o.created_at, o.id"
+            + "</script>")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    @Results(id = "orderNodeRow", value = {
+            @Result(property = "order.id", column = "id"),
+            @Result(property = "order.trackingNumber", column = "tracking_number"),
+            @Result(property = "order.courierCompany", column = "courier_company"),
+            @Result(property = "order.courierLogo", column = "courier_logo"),
+            @Result(property = "order.status", column = "status"),
+            @Result(property = "order.itemName", column = "item_name"),
+            @Result(property = "order.senderName", column = "sender_name"),
+            @Result(property = "order.senderPhone", column = "sender_phone"),
+            @Result(property = "order.senderAddress", column = "sender_address"),
+            @Result(property = "order.receiverName", column = "receiver_name"),
+            @Result(property = "order.receiverPhone", column = "receiver_phone"),
+            @Result(property = "order.receiverAddress", column = "receiver_address"),
+            @Result(property = "order.estimatedTime", column = "estimated_time"),
+            @Result(property = "order.userId", column = "user_id"),
+            @Result(property = "order.currentNodeId", column = "current_node_id"),
+            @Result(property = "order.currentNodeLocation", column = "current_node_location"),
+            @Result(property = "order.currentNodeStatus", column = "current_node_status"),
+            @Result(property = "order.currentNodeTime", column = "current_node_time"),
+            @Result(property = "order.nodesArchived", column = "nodes_archived"),
+            @Result(property = "order.createdAt", column = "created_at"),
+            @Result(property = "node.id", column = "n_id"),
+            @Result(property = "node.time", column = "n_time"),
+            @Result(property = "node.location", column = "n_location"),
+            @Result(property = "node.status", column = "n_status"),
+            @Result(property = "node.description", column = "n_description"),
+            @Result(property = "node.isActive", column = "n_is_active"),
+            @Result(property = "archivedNodes", column = "archived_nodes")
+    })
+    Cursor<OrderNodeRow> scanWithNodes(@Param("userId") Long userId, @Param("status") String status,
+                                       @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,33 @@
+package com.logistics.mapper;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Mapper
+public interface OrderSearchTokenMapper {
+
+    @Insert("<script>"
+            + "INSERT IGNORE INTO t_order_search_token (user_id, token, order_id) VALUES "
+            + "<foreach collection='tokens' item='token' separator=','>(#{userId}, #{token}, #{orderId})</foreach>"
+            + "</script>")
+    int insertTokens(@Param("userId") Long userId, @Param("orderId") Long orderId,
+                     @Param("tokens") Collection<String> tokens);
+
+    /**
+     * 多个订单的n-gram一次写入，每行含userId、orderId、token
+     */
+    @Insert("<script>"
+            + "INSERT IGNORE INTO t_order_search_token (user_id, token, order_id) VALUES "
+            + "<foreach collection='rows' item='r' separator=','>(#{r.userId}, #{r.token}, #{r.orderId})</foreach>"
+            + "</script>")
+    int insertTokenRows(@Param("rows") List<Map<String, Object>> rows);
+
+    @Delete("DELETE FROM t_order_search_token WHERE order_id = #{orderId}")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+}
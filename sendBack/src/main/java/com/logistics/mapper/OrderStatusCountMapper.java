@@ -0,0 +1,41 @@
+package com.logistics.mapper;
+
+import com.logistics.entity.OrderStatusCount;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+@Mapper
+public interface OrderStatusCountMapper {
+
+    @Insert("INSERT INTO t_order_status_count (user_id, status, order_count) VALUES (#{userId}, #{status}, #{delta}) "
+            + "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count)")
+    int increment(@Param("userId") Long userId, @Param("status") String status, @Param("delta") long delta);
+
+    @Insert("INSERT INTO t_order_status_count (user_id, status, order_count) VALUES (#{userId}, #{status}, #{orderCount}) "
+            + "ON DUPLICATE KEY UPDATE order_count = VALUES(order_count)")
+    int upsert(@Param("userId") Long userId, @Param("status") String status, @Param("orderCount") long orderCount);
+
+    @Select("SELECT user_id, status, order_count FROM t_order_status_count WHERE user_id = #{userId}")
+    List<OrderStatusCount> selectByUserId(@Param("userId") Long userId);
+
+    @Select("<script>"
+            + "SELECT user_id, status, order_count FROM t_order_status_count WHERE user_id IN "
+            + "<foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>"
+            + " FOR UPDATE"
+            + "</script>")
+    List<OrderStatusCount> selectByUserIdsForUpdate(@Param("userIds") List<Long> userIds);
+
+    /**
+     * 按订单表实时统计，对账用
+     */
+    @Select("<script>"
+            + "SELECT user_id, status, COUNT(*) AS order_count FROM t_order WHERE deleted = 0 AND user_id IN "
+            + "<foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>"
+            + " GROUP BY user_id, status"
+            + "</script>")
+    List<OrderStatusCount> countOrders(@Param("userIds") List<Long> userIds);
+}
@@ -0,0 +1,36 @@
+package com.logistics.mapper;
+
+import com.logistics.entity.OutboxEvent;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface OutboxEventMapper {
+
+    @Insert("<script>"
+            + "INSERT INTO t_outbox_event (aggregate_type, aggregate_id, event_type, payload) VALUES "
+            + "<foreach collection='events' item='e' separator=','>"
+            + "(#{e.aggregateType}, #{e.aggregateId}, #{e.eventType}, #{e.payload})"
+            + "</foreach>"
+            + "</script>")
+    int insertBatch(@Param("events") List<OutboxEvent> events);
+
+    @Select("SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at FROM t_outbox_event "
+            + "WHERE id > #{afterId} ORDER BY id LIMIT #{limit}")
+    List<OutboxEvent> selectAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Select("SELECT COALESCE(MAX(id), 0) FROM t_outbox_event")
+    long selectMaxId();
+
+    /**
+     * 删除所有消费者都已确认且超过保留期的事件
+     */
+    @Delete("DELETE FROM t_outbox_event WHERE id <= #{maxId} AND created_at < #{before} LIMIT #{limit}")
+    int deleteConsumed(@Param("maxId") long maxId, @Param("before") LocalDateTime before, @Param("limit") int limit);
+}
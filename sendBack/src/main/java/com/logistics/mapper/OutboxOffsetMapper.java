@@ -0,0 +1,26 @@
+package com.logistics.mapper;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+@Mapper
+public interface OutboxOffsetMapper {
+
+    @Insert("INSERT IGNORE INTO t_outbox_offset (consumer, last_event_id) VALUES (#{consumer}, 0)")
+    int insertIfAbsent(@Param("consumer") String consumer);
+
+    /**
+     * 锁住消费者位置，已被其他节点锁住时返回null，同一消费者同时只有一个节点投递
+     */
+    @Select("SELECT last_event_id FROM t_outbox_offset WHERE consumer = #{consumer} FOR UPDATE SKIP LOCKED")
+    Long lockOffset(@Param("consumer") String consumer);
+
+    @Select("SELECT last_event_id FROM t_outbox_offset WHERE consumer = #{consumer}")
+    Long selectOffset(@Param("consumer") String consumer);
+
+    @Update("UPDATE t_outbox_offset SET last_event_id = #{lastEventId} WHERE consumer = #{consumer}")
+    int updateOffset(@Param("consumer") String consumer, @Param("lastEventId") long lastEventId);
+}
@@ -0,0 +1,20 @@
+package com.logistics.mapper;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+@Mapper
+public interface TrackingSequenceMapper {
+
+    @Select("SELECT next_value FROM t_tracking_sequence WHERE courier_code = #{courierCode} FOR UPDATE")
+    Long selectNextValueForUpdate(@Param("courierCode") String courierCode);
+
+    @Insert("INSERT IGNORE INTO t_tracking_sequence (courier_code, next_value) VALUES (#{courierCode}, #{nextValue})")
+    int insertIgnore(@Param("courierCode") String courierCode, @Param("nextValue") long nextValue);
+
+    @Update("UPDATE t_tracking_sequence SET next_value = #{nextValue} WHERE courier_code = #{courierCode}")
+    int updateNextValue(@Param("courierCode") String courierCode, @Param("nextValue") long nextValue);
+}
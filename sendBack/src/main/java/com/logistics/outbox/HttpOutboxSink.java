@@ -0,0 +1,60 @@
+package com.logistics.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 以JSON数组POST到HTTP端点，返回2xx才算投递成功
+ */
+@Component
+@ConditionalOnProperty(prefix = "outbox.sinks.http", name = "enabled", havingValue = "true")
+public class HttpOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+
+    private final URI url;
+
+    private final Duration timeout;
+
+    private final HttpClient httpClient;
+
+    public HttpOutboxSink(ObjectMapper objectMapper,
+                          @Value("${outbox.sinks.http.url}") String url,
+                          @Value("${outbox.sinks.http.timeout:5000}") long timeout) {
+        this.objectMapper = objectMapper;
+        this.url = URI.create(url);
+        this.timeout = Duration.ofMillis(timeout);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(this.timeout).build();
+    }
+
+    @Override
+    public String name() {
+        return "http";
+    }
+
+    @Override
+    public void deliver(List<OutboxEvent> events) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(events)))
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("变更事件投递失败，HTTP " + response.statusCode());
+        }
+    }
+}
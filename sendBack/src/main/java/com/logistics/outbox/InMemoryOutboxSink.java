@@ -0,0 +1,61 @@
+package com.logistics.outbox;
+
+import com.logistics.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 进程内有界队列，供同进程消费者和测试使用；队列放不下整批时拒绝，由中继稍后重投
+ */
+@Component
+@ConditionalOnProperty(prefix = "outbox.sinks.memory", name = "enabled", havingValue = "true")
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final BlockingQueue<OutboxEvent> queue;
+
+    // 保证整批入队，不会只进一半
+    private final ReentrantLock offerLock = new ReentrantLock();
+
+    public InMemoryOutboxSink(@Value("${outbox.sinks.memory.capacity:10000}") int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    @Override
+    public void deliver(List<OutboxEvent> events) {
+        offerLock.lock();
+        try {
+            if (queue.remainingCapacity() < events.size()) {
+                throw new IllegalStateException("内存事件队列已满");
+            }
+            queue.addAll(events);
+        } finally {
+            offerLock.unlock();
+        }
+    }
+
+    /**
+     * 取出一个事件，超时返回null
+     */
+    public OutboxEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.poll(timeout, unit);
+    }
+
+    /**
+     * 取出最多maxEvents个事件放入target，返回取出的个数
+     */
+    public int drainTo(List<OutboxEvent> target, int maxEvents) {
+        return queue.drainTo(target, maxEvents);
+    }
+}
@@ -0,0 +1,265 @@
+package com.logistics.outbox;
+
+import com.logistics.entity.OutboxEvent;
+import com.logistics.mapper.ActiveTransactionMapper;
+import com.logistics.mapper.OutboxEventMapper;
+import com.logistics.mapper.OutboxOffsetMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 变更事件中继：按事件ID顺序把 t_outbox_event 分批投递给各 {@link OutboxSink}。
+ * 每批在一个事务内锁住消费者位置、投递、推进位置，投递成功但提交失败时会重投，即至少一次；
+ * 多节点同时运行时同一消费者只会被一个节点投递
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final long MAX_BACKOFF = 30000;
+
+    // 空洞已确认作废：事务列表是在读事件之后查的，期间提交的事件要重读一次才能看到，下一批再跳过
+    private static final long ABANDONED = Long.MIN_VALUE;
+
+    private final List<OutboxSink> sinks;
+    private final OutboxEventMapper outboxEventMapper;
+    private final OutboxOffsetMapper outboxOffsetMapper;
+    private final ActiveTransactionMapper activeTransactionMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.relay.interval:500}")
+    private long interval;
+
+    @Value("${outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-batches:20}")
+    private int maxBatches;
+
+    @Value("${outbox.relay.gap-timeout:10000}")
+    private long gapTimeout;
+
+    @Value("${outbox.relay.max-transaction-time:600000}")
+    private long maxTransactionTime;
+
+    @Value("${outbox.retention:604800000}")
+    private long retention;
+
+    // 以下状态只在调度线程上读写
+    // 自增ID按分配顺序而非提交顺序可见，遇到空洞先停在空洞前等待；按消费者记录空洞起始ID及发现时间
+    private final Map<String, Map<Long, Long>> gaps = new HashMap<>();
+
+    // 投递失败的消费者按指数退避，key为消费者名称
+    private final Map<String, Backoff> backoffs = new HashMap<>();
+
+    // 按回滚跳过的事件ID数，key为消费者名称
+    private final Map<String, Counter> skipped = new HashMap<>();
+
+    // 各消费者积压的事件数(按ID差值估算)，由updateLag定时刷新，指标采集时只读内存值不查库
+    private final Map<String, AtomicLong> lags = new HashMap<>();
+
+    public OutboxRelay(List<OutboxSink> sinks, OutboxEventMapper outboxEventMapper,
+                       OutboxOffsetMapper outboxOffsetMapper, ActiveTransactionMapper activeTransactionMapper,
+                       TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.sinks = sinks;
+        this.outboxEventMapper = outboxEventMapper;
+        this.outboxOffsetMapper = outboxOffsetMapper;
+        this.activeTransactionMapper = activeTransactionMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        for (OutboxSink sink : sinks) {
+            AtomicLong lag = new AtomicLong();
+            lags.put(sink.name(), lag);
+            Gauge.builder("outbox.consumer.lag", lag, AtomicLong::get)
+                    .description("消费者积压的变更事件数(按ID差值估算)")
+                    .tag("consumer", sink.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 预先建好各消费者的位置行，新消费者从头投递保留期内的事件
+     */
+    @PostConstruct
+    public void init() {
+        for (OutboxSink sink : sinks) {
+            try {
+                outboxOffsetMapper.insertIfAbsent(sink.name());
+            } catch (RuntimeException e) {
+                log.warn("初始化变更事件消费者 {} 失败: {}", sink.name(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:500}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (OutboxSink sink : sinks) {
+            Backoff backoff = backoffs.get(sink.name());
+            if (backoff != null && now < backoff.retryAt) {
+                continue;
+            }
+            try {
+                for (int i = 0; i < maxBatches; i++) {
+                    if (deliverBatch(sink) < batchSize) {
+                        break;
+                    }
+                }
+                backoffs.remove(sink.name());
+            } catch (RuntimeException e) {
+                long delay = backoff == null ? interval : Math.min(backoff.delay * 2, MAX_BACKOFF);
+                backoffs.put(sink.name(), new Backoff(delay, System.currentTimeMillis() + delay));
+                log.warn("变更事件投递到 {} 失败，{}ms后重试: {}", sink.name(), delay, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 删除所有消费者都已确认且超过保留期的事件；未配置消费者时只按保留期删除
+     */
+    @Scheduled(fixedDelayString = "${outbox.cleanup-interval:3600000}")
+    public void cleanup() {
+        try {
+            long consumed = Long.MAX_VALUE;
+            for (OutboxSink sink : sinks) {
+                Long offset = outboxOffsetMapper.selectOffset(sink.name());
+                consumed = Math.min(consumed, offset != null ? offset : 0L);
+            }
+            LocalDateTime before = LocalDateTime.now().minus(Duration.ofMillis(retention));
+            int deleted;
+            do {
+                deleted = outboxEventMapper.deleteConsumed(consumed, before, batchSize);
+            } while (deleted == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("清理变更事件失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 刷新各消费者的积压数，经监控端口的 outbox.consumer.lag 指标查看
+     */
+    @Scheduled(fixedDelayString = "${outbox.lag-interval:15000}")
+    public void updateLag() {
+        try {
+            long latest = outboxEventMapper.selectMaxId();
+            for (OutboxSink sink : sinks) {
+                Long offset = outboxOffsetMapper.selectOffset(sink.name());
+                lags.get(sink.name()).set(Math.max(latest - (offset != null ? offset : 0L), 0L));
+            }
+        } catch (RuntimeException e) {
+            log.debug("刷新变更事件积压失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 投递一批，返回本批读到的事件数；位置被其他节点锁住时返回0
+     */
+    private int deliverBatch(OutboxSink sink) {
+        Integer read = transactionTemplate.execute(status -> {
+            Long offset = outboxOffsetMapper.lockOffset(sink.name());
+            if (offset == null) {
+                return 0;
+            }
+            List<OutboxEvent> events = outboxEventMapper.selectAfter(offset, batchSize);
+            List<OutboxEvent> ready = contiguousPrefix(sink.name(), offset, events);
+            if (ready.isEmpty()) {
+                return 0;
+            }
+            try {
+                sink.deliver(ready);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+            outboxOffsetMapper.updateOffset(sink.name(), ready.get(ready.size() - 1).getId());
+            // 停在空洞前时本批未读完，视为不满一批，等下一轮
+            return ready.size() == events.size() ? events.size() : 0;
+        });
+        return read != null ? read : 0;
+    }
+
+    /**
+     * 取ID连续的前缀。空洞可能属于尚未提交的事务(导入批次、归档批次、锁等待等都可能很长)，先停在空洞前等待；
+     * 等待超过gap-timeout后，只有发现空洞之前开始的事务都已结束，才能确定该ID已随回滚作废并跳过。
+     * 无法读取事务列表时退化为等待max-transaction-time
+     */
+    private List<OutboxEvent> contiguousPrefix(String consumer, long offset, List<OutboxEvent> events) {
+        long now = System.currentTimeMillis();
+        Map<Long, Long> gaps = this.gaps.computeIfAbsent(consumer, name -> new HashMap<>());
+        gaps.keySet().removeIf(id -> id <= offset);
+        List<OutboxEvent> ready = new ArrayList<>(events.size());
+        long expected = offset + 1;
+        for (OutboxEvent event : events) {
+            if (event.getId() != expected) {
+                long foundAt = gaps.computeIfAbsent(expected, id -> now);
+                if (foundAt != ABANDONED) {
+                    if (gapAbandoned(now - foundAt)) {
+                        gaps.put(expected, ABANDONED);
+                    }
+                    break;
+                }
+                long count = event.getId() - expected;
+                skipped.computeIfAbsent(consumer, name -> Counter.builder("outbox.relay.skipped")
+                        .description("按回滚跳过的变更事件ID数")
+                        .tag("consumer", name)
+                        .register(meterRegistry)).increment(count);
+                log.warn("变更事件ID {}-{} 未出现且发现空洞前开始的事务均已结束，{} 按回滚跳过 {} 个ID",
+                        expected, event.getId() - 1, consumer, count);
+                gaps.remove(expected);
+            }
+            ready.add(event);
+            expected = event.getId() + 1;
+        }
+        return ready;
+    }
+
+    /**
+     * 空洞已等待waited毫秒，判断占用该ID的事务是否已不可能提交。分配ID的事务一定在发现空洞前开始
+     */
+    private boolean gapAbandoned(long waited) {
+        if (waited < gapTimeout) {
+            return false;
+        }
+        try {
+            return activeTransactionMapper.selectLongestRunningMillis() < waited;
+        } catch (RuntimeException e) {
+            log.debug("读取活动事务失败，空洞等待至 max-transaction-time: {}", e.getMessage());
+            return waited >= maxTransactionTime;
+        }
+    }
+
+    private static class Backoff {
+
+        private final long delay;
+
+        private final long retryAt;
+
+        private Backoff(long delay, long retryAt) {
+            this.delay = delay;
+            this.retryAt = retryAt;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.logistics.outbox;
+
+import com.logistics.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * 变更事件投递目标，每个实现是一个独立消费者，按 {@link #name()} 在 t_outbox_offset 记录投递位置
+ */
+public interface OutboxSink {
+
+    /**
+     * 消费者名称，上线后不要修改，否则会从头重新投递
+     */
+    String name();
+
+    /**
+     * 按事件ID升序投递一批事件，正常返回才会推进位置；抛异常时整批在下一轮重投，下游需按事件ID去重
+     */
+    void deliver(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,99 @@
+package com.logistics.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.entity.LogisticsNode;
+import com.logistics.entity.OutboxEvent;
+import com.logistics.mapper.OutboxEventMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 变更事件写入，在调用方事务内追加到 t_outbox_event，与业务数据一起提交或回滚
+ */
+@Component
+public class OutboxWriter {
+
+    public static final String AGGREGATE_ORDER = "order";
+    public static final String AGGREGATE_LOGISTICS_NODE = "logistics_node";
+
+    public static final String ORDER_CREATED = "order.created";
+    public static final String ORDER_STATUS_CHANGED = "order.status_changed";
+    public static final String ORDER_DELETED = "order.deleted";
+    public static final String LOGISTICS_NODE_ADDED = "logistics_node.added";
+
+    // 单条INSERT语句的最大行数
+    private static final int INSERT_CHUNK_SIZE = 500;
+
+    private final OutboxEventMapper outboxEventMapper;
+    private final ObjectMapper objectMapper;
+
+    @Value("${outbox.enabled:true}")
+    private boolean enabled;
+
+    public OutboxWriter(OutboxEventMapper outboxEventMapper, ObjectMapper objectMapper) {
+        this.outboxEventMapper = outboxEventMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 追加订单事件，aggregateId为订单ID
+     */
+    public void appendOrderEvent(Long orderId, String eventType, Object payload) {
+        if (!enabled) {
+            return;
+        }
+        outboxEventMapper.insertBatch(List.of(event(AGGREGATE_ORDER, orderId, eventType, payload)));
+    }
+
+    /**
+     * 批量追加同一类型的订单事件，每个元素即一个事件的payload，orderId从中取出aggregateId
+     */
+    public <T> void appendOrderEvents(String eventType, List<T> items, Function<T, Long> orderId) {
+        if (!enabled || items.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> events = new ArrayList<>(items.size());
+        for (T item : items) {
+            events.add(event(AGGREGATE_ORDER, orderId.apply(item), eventType, item));
+        }
+        insertChunked(events);
+    }
+
+    /**
+     * 追加物流节点事件，aggregateId为节点所属订单ID，下游可按订单聚合
+     */
+    public void appendNodesAdded(List<LogisticsNode> nodes) {
+        if (!enabled || nodes.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> events = new ArrayList<>(nodes.size());
+        for (LogisticsNode node : nodes) {
+            events.add(event(AGGREGATE_LOGISTICS_NODE, node.getOrderId(), LOGISTICS_NODE_ADDED, node));
+        }
+        insertChunked(events);
+    }
+
+    private void insertChunked(List<OutboxEvent> events) {
+        for (int from = 0; from < events.size(); from += INSERT_CHUNK_SIZE) {
+            outboxEventMapper.insertBatch(events.subList(from, Math.min(from + INSERT_CHUNK_SIZE, events.size())));
+        }
+    }
+
+    private OutboxEvent event(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setEventType(eventType);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("变更事件序列化失败: " + eventType, e);
+        }
+        return event;
+    }
+}
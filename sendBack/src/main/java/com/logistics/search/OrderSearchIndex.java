@@ -0,0 +1,169 @@
+package com.logistics.search;
+
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.logistics.entity.Order;
+import com.logistics.mapper.OrderMapper;
+import com.logistics.mapper.OrderSearchTokenMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 订单关键词n-gram索引，覆盖单号、收件人姓名、收件人电话和寄件人姓名。
+ * 所有字符建二元组，非ASCII字符(中文等)额外建单字，以支持单字姓氏检索。
+ */
+@Slf4j
+@Component
+public class OrderSearchIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    // 单条INSERT语句的最大行数
+    private static final int INSERT_CHUNK_SIZE = 1000;
+
+    private final OrderSearchTokenMapper tokenMapper;
+    private final OrderMapper orderMapper;
+
+    @Value("${search.order.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    public OrderSearchIndex(OrderSearchTokenMapper tokenMapper, OrderMapper orderMapper) {
+        this.tokenMapper = tokenMapper;
+        this.orderMapper = orderMapper;
+    }
+
+    public void index(Order order) {
+        Set<String> tokens = tokensOf(order);
+        if (!tokens.isEmpty()) {
+            tokenMapper.insertTokens(order.getUserId(), order.getId(), tokens);
+        }
+    }
+
+    /**
+     * 批量建索引，多个订单的n-gram按行数分批写入
+     */
+    public void indexAll(List<Order> orders) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Order order : orders) {
+            for (String token : tokensOf(order)) {
+                rows.add(Map.of("userId", order.getUserId(), "orderId", order.getId(), "token", token));
+                if (rows.size() == INSERT_CHUNK_SIZE) {
+                    tokenMapper.insertTokenRows(rows);
+                    rows = new ArrayList<>();
+                }
+            }
+        }
+        if (!rows.isEmpty()) {
+            tokenMapper.insertTokenRows(rows);
+        }
+    }
+
+    public void reindex(Order order) {
+        remove(order.getId());
+        index(order);
+    }
+
+    public void remove(Long orderId) {
+        tokenMapper.deleteByOrderId(orderId);
+    }
+
+    /**
+     * 追加索引过滤条件：订单须包含关键词的全部n-gram。以子查询在数据库内过滤，不截断候选集，
+     * 分页、总数和其他筛选都作用于完整结果；关键词无法走索引(单个ASCII字符)时不追加并返回false
+     */
+    public boolean applyFilter(LambdaQueryWrapper<Order> queryWrapper, Long userId, String keyword) {
+        List<String> grams = queryGrams(normalize(keyword));
+        if (grams.isEmpty()) {
+            return false;
+        }
+        Object[] values = new Object[grams.size() + 2];
+        StringBuilder sql = new StringBuilder("id IN (SELECT order_id FROM t_order_search_token WHERE user_id = {0} AND token IN (");
+        values[0] = userId;
+        for (int i = 0; i < grams.size(); i++) {
+            sql.append(i > 0 ? ", {" : "{").append(i + 1).append('}');
+            values[i + 1] = grams.get(i);
+        }
+        sql.append(") GROUP BY order_id HAVING COUNT(*) = {").append(grams.size() + 1).append("})");
+        values[grams.size() + 1] = grams.size();
+        queryWrapper.apply(sql.toString(), values);
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 全量重建索引，用于首次上线或修复
+     */
+    public void rebuild() {
+        long lastId = 0L;
+        int total = 0;
+        while (true) {
+            List<Order> orders = orderMapper.selectList(
+                    new LambdaQueryWrapper<Order>()
+                            .gt(Order::getId, lastId)
+                            .orderByAsc(Order::getId)
+                            .last("LIMIT " + REBUILD_BATCH_SIZE)
+            );
+            if (orders.isEmpty()) {
+                break;
+            }
+            for (Order order : orders) {
+                reindex(order);
+            }
+            total += orders.size();
+            lastId = orders.get(orders.size() - 1).getId();
+        }
+        log.info("订单搜索索引重建完成: {} 条", total);
+    }
+
+    private static Set<String> tokensOf(Order order) {
+        Set<String> tokens = new LinkedHashSet<>();
+        addTokens(tokens, order.getTrackingNumber());
+        addTokens(tokens, order.getReceiverName());
+        addTokens(tokens, order.getReceiverPhone());
+        addTokens(tokens, order.getSenderName());
+        return tokens;
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : StrUtil.cleanBlank(text).toLowerCase();
+    }
+
+    static void addTokens(Set<String> tokens, String text) {
+        int[] cps = normalize(text).codePoints().toArray();
+        for (int i = 0; i < cps.length; i++) {
+            if (cps[i] > 0x7F) {
+                tokens.add(new String(cps, i, 1));
+            }
+            if (i + 1 < cps.length) {
+                tokens.add(new String(cps, i, 2));
+            }
+        }
+    }
+
+    static List<String> queryGrams(String keyword) {
+        int[] cps = keyword.codePoints().toArray();
+        if (cps.length == 1) {
+            return cps[0] > 0x7F ? List.of(keyword) : List.of();
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 1 < cps.length; i++) {
+            grams.add(new String(cps, i, 2));
+        }
+        return new ArrayList<>(grams);
+    }
+}
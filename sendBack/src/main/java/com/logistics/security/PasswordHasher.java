@@ -0,0 +1,183 @@
+package com.logistics.security;
+
+import com.logistics.common.BusinessException;
+import com.logistics.common.ResultCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 密码哈希专用线程池：BCrypt计算不占用请求线程，线程数与排队长度有上限，队列满时立即拒绝。
+ * 线程池、耗时和拒绝次数以 password.hash.* 与 executor.*{name=password-hash} 指标提供，只在监控端口可见
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final int cost;
+
+    private final long timeout;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Timer hashTimer;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+    private final Counter timeoutCounter;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                          @Value("${password.hash.cost:10}") int cost,
+                          @Value("${password.hash.threads:0}") int threads,
+                          @Value("${password.hash.queue-capacity:64}") int queueCapacity,
+                          @Value("${password.hash.timeout:3000}") long timeout) {
+        this.passwordEncoder = passwordEncoder;
+        this.cost = cost;
+        this.timeout = timeout;
+        // 默认只用一半核心，登录高峰时其余核心留给查单、下单等请求
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // 活跃线程、排队数、剩余队列容量等由Micrometer的线程池指标提供
+        new ExecutorServiceMetrics(executor, "password-hash", Tags.empty()).bindTo(meterRegistry);
+        this.hashTimer = Timer.builder("password.hash")
+                .description("BCrypt计算耗时")
+                .tag("cost", String.valueOf(cost))
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("password.hash.wait")
+                .description("哈希任务排队耗时")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hash.rejected")
+                .description("队列满被拒绝次数")
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("password.hash.timeouts")
+                .description("等待结果超时次数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 计算密码哈希，排队满或等待超时时抛出系统繁忙
+     */
+    public String encode(CharSequence rawPassword) {
+        return await(submit(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * 校验密码，排队满或等待超时时抛出系统繁忙
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(submit(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * 异步计算密码哈希，不阻塞调用方；线程池繁忙时返回失败的Future
+     */
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        try {
+            return submit(() -> passwordEncoder.encode(rawPassword));
+        } catch (BusinessException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 哈希的成本因子与配置不一致时需要重新哈希，调低成本同样生效
+     */
+    public boolean needsRehash(String encodedPassword) {
+        int encodedCost = parseCost(encodedPassword);
+        return encodedCost > 0 && encodedCost != cost;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long submitTime = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                // 调用方已超时放弃的任务不再计算
+                if (future.isDone()) {
+                    return;
+                }
+                long start = System.nanoTime();
+                try {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    hashTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    waitTimer.record(start - submitTime, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new BusinessException(ResultCode.SERVICE_BUSY);
+        }
+        return future;
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            timeoutCounter.increment();
+            throw new BusinessException(ResultCode.SERVICE_BUSY);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ResultCode.SERVICE_BUSY);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 解析BCrypt哈希($2a$10$...)中的成本因子，非BCrypt格式返回-1
+     */
+    private static int parseCost(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7
+                || encodedPassword.charAt(0) != '$' || encodedPassword.charAt(3) != '$'
+                || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        char tens = encodedPassword.charAt(4);
+        char ones = encodedPassword.charAt(5);
+        if (tens < '0' || tens > '9' || ones < '0' || ones > '9') {
+            return -1;
+        }
+        return (tens - '0') * 10 + (ones - '0');
+    }
+}
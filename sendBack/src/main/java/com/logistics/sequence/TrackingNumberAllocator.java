@@ -0,0 +1,197 @@
+package com.logistics.sequence;
+
+import com.logistics.mapper.TrackingSequenceMapper;
+import com.logistics.util.TrackingNumberUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 快递单号分配器。每个快递公司从 t_tracking_sequence 按号段租用序号，号段在独立事务中行锁更新，
+ * 多实例之间互不重叠；号段内由内存原子计数分配，剩余不足一定比例时异步预取下一号段。
+ * 实例重启或预取未用完会留下空号，不影响唯一性。
+ * 预取未赶上时耗尽号段的线程会同步租用并占用一个连接，调用方应在业务事务开始之前分配单号。
+ */
+@Slf4j
+@Component
+public class TrackingNumberAllocator {
+
+    // 按顺序匹配快递公司名称
+    private static final String[][] COURIER_CODES = {
+            {"顺丰", "SF"},
+            {"圆通", "YT"},
+            {"中通", "ZTO"},
+            {"韵达", "YD"},
+            {"申通", "STO"}
+    };
+
+    private static final String DEFAULT_COURIER_CODE = "EX";
+
+    // 名称来自用户输入，只缓存有限个
+    private static final int COURIER_NAME_CACHE_LIMIT = 1024;
+
+    private final TrackingSequenceMapper trackingSequenceMapper;
+    private final TransactionTemplate leaseTransaction;
+    private final AsyncTaskExecutor prefetchExecutor;
+
+    @Value("${tracking.number.block-size:1000}")
+    private int blockSize;
+
+    @Value("${tracking.number.prefetch-ratio:0.2}")
+    private double prefetchRatio;
+
+    private final Map<String, String> courierCodeByName = new ConcurrentHashMap<>();
+    private final Map<String, CourierSequence> sequences = new ConcurrentHashMap<>();
+
+    public TrackingNumberAllocator(TrackingSequenceMapper trackingSequenceMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   @Qualifier("applicationTaskExecutor") AsyncTaskExecutor prefetchExecutor) {
+        this.trackingSequenceMapper = trackingSequenceMapper;
+        // 号段租用不能随下单事务回滚，也不能把序列行锁持有到下单事务结束
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.prefetchExecutor = prefetchExecutor;
+    }
+
+    public String allocate(String courierCompany) {
+        String courierCode = courierCode(courierCompany);
+        return TrackingNumberUtil.format(courierCode, nextSequence(courierCode));
+    }
+
+    public String courierCode(String courierCompany) {
+        if (courierCompany == null) {
+            return DEFAULT_COURIER_CODE;
+        }
+        String code = courierCodeByName.get(courierCompany);
+        if (code != null) {
+            return code;
+        }
+        code = DEFAULT_COURIER_CODE;
+        for (String[] entry : COURIER_CODES) {
+            if (courierCompany.contains(entry[0])) {
+                code = entry[1];
+                break;
+            }
+        }
+        if (courierCodeByName.size() < COURIER_NAME_CACHE_LIMIT) {
+            courierCodeByName.put(courierCompany, code);
+        }
+        return code;
+    }
+
+    private long nextSequence(String courierCode) {
+        CourierSequence sequence = sequences.computeIfAbsent(courierCode, CourierSequence::new);
+        while (true) {
+            Block block = sequence.current;
+            if (block != null) {
+                long value = block.cursor.getAndIncrement();
+                if (value < block.end) {
+                    if (value == block.prefetchAt) {
+                        prefetch(sequence);
+                    }
+                    return value;
+                }
+            }
+            switchBlock(sequence, block);
+        }
+    }
+
+    private void switchBlock(CourierSequence sequence, Block exhausted) {
+        sequence.lock.lock();
+        try {
+            if (sequence.current != exhausted) {
+                // 其他线程已切换
+                return;
+            }
+            Block next = sequence.next;
+            sequence.next = null;
+            sequence.current = next != null ? next : lease(sequence.courierCode);
+        } finally {
+            sequence.lock.unlock();
+        }
+    }
+
+    private void prefetch(CourierSequence sequence) {
+        if (!sequence.prefetching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            prefetchExecutor.execute(() -> {
+                try {
+                    Block block = lease(sequence.courierCode);
+                    sequence.lock.lock();
+                    try {
+                        if (sequence.next == null) {
+                            sequence.next = block;
+                        }
+                    } finally {
+                        sequence.lock.unlock();
+                    }
+                } catch (RuntimeException e) {
+                    // 预取失败时由号段耗尽的线程同步租用
+                    log.warn("预取快递单号号段失败 courier={}", sequence.courierCode, e);
+                } finally {
+                    sequence.prefetching.set(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            sequence.prefetching.set(false);
+        }
+    }
+
+    private Block lease(String courierCode) {
+        Long start = leaseTransaction.execute(status -> {
+            Long value = trackingSequenceMapper.selectNextValueForUpdate(courierCode);
+            if (value == null) {
+                trackingSequenceMapper.insertIgnore(courierCode, TrackingNumberUtil.MIN_SEQUENCE);
+                value = trackingSequenceMapper.selectNextValueForUpdate(courierCode);
+            }
+            long end = value + blockSize;
+            if (end - 1 > TrackingNumberUtil.MAX_SEQUENCE) {
+                throw new IllegalStateException("快递单号序号已用尽: " + courierCode);
+            }
+            trackingSequenceMapper.updateNextValue(courierCode, end);
+            return value;
+        });
+        return new Block(start, start + blockSize, Math.max(1L, (long) (blockSize * prefetchRatio)));
+    }
+
+    private static final class CourierSequence {
+
+        private final String courierCode;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final AtomicBoolean prefetching = new AtomicBoolean();
+        private volatile Block current;
+        private Block next;
+
+        private CourierSequence(String courierCode) {
+            this.courierCode = courierCode;
+        }
+    }
+
+    private static final class Block {
+
+        private final AtomicLong cursor;
+        private final long end;
+        // 分配到该序号时触发预取
+        private final long prefetchAt;
+
+        private Block(long start, long end, long prefetchRemaining) {
+            this.cursor = new AtomicLong(start);
+            this.end = end;
+            this.prefetchAt = Math.max(start, end - prefetchRemaining);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.logistics.service;
+
+import com.logistics.common.PrecompressedBody;
+
+public interface AreaService {
+
+    PrecompressedBody getAreaData();
+
+    boolean refreshAreaData();
+}
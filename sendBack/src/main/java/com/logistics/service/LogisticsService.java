@@ -1,12 +1,17 @@
 package com.logistics.service;
 
 import com.logistics.dto.LogisticsNodeDTO;
+import com.logistics.vo.LogisticsBatchResultVO;
 import com.logistics.vo.LogisticsNodeVO;
 import com.logistics.vo.LogisticsTrackingVO;
 
+import java.util.List;
+
 public interface LogisticsService {
 
     LogisticsTrackingVO getLogisticsByOrderId(Long orderId);
 
     LogisticsNodeVO addLogisticsNode(LogisticsNodeDTO nodeDTO);
+
+    LogisticsBatchResultVO addLogisticsNodes(List<LogisticsNodeDTO> nodeDTOs);
 }
@@ -1,10 +1,19 @@
 package com.logistics.service;
 
 import com.logistics.dto.OrderCreateDTO;
+import com.logistics.dto.OrderExportQueryDTO;
 import com.logistics.dto.OrderQueryDTO;
 import com.logistics.dto.OrderStatusDTO;
+import com.logistics.vo.OrderImportVO;
+import com.logistics.vo.OrderSummaryVO;
 import com.logistics.vo.OrderVO;
 import com.logistics.vo.PageVO;
+import com.logistics.vo.TrackingLookupVO;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
 
 public interface OrderService {
 
@@ -14,9 +23,19 @@ public interface OrderService {
 
     OrderVO getOrderById(Long id, Long userId);
 
+    OrderSummaryVO getOrderSummary(Long userId);
+
     OrderVO updateOrderStatus(Long id, Long userId, OrderStatusDTO statusDTO);
 
     void deleteOrder(Long id, Long userId);
 
     OrderVO getOrderByTrackingNumber(String trackingNumber);
+
+    Map<String, TrackingLookupVO> getOrdersByTrackingNumbers(List<String> trackingNumbers);
+
+    OrderImportVO importOrders(Long userId, String importId, String format, InputStream content);
+
+    OrderImportVO getImportProgress(Long userId, String importId);
+
+    long exportOrders(Long userId, OrderExportQueryDTO queryDTO, OutputStream out);
 }
@@ -1,11 +1,12 @@
 package com.logistics.service.impl;
 
-import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.logistics.cache.LocalCache;
 import com.logistics.common.BusinessException;
 import com.logistics.common.ResultCode;
+import com.logistics.converter.AddressConverter;
 import com.logistics.dto.AddressDTO;
 import com.logistics.entity.Address;
 import com.logistics.mapper.AddressMapper;
@@ -14,59 +15,53 @@ import com.logistics.vo.AddressVO;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 public class AddressServiceImpl implements AddressService {
 
+    // 默认地址在前，同级按创建时间倒序
+    private static final Comparator<AddressVO> ADDRESS_ORDER = Comparator
+            .comparing(AddressVO::getIsDefault, Comparator.reverseOrder())
+            .thenComparing(AddressVO::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()));
+
     private final AddressMapper addressMapper;
+    private final LocalCache<Long, List<AddressVO>> addressCache;
 
-    public AddressServiceImpl(AddressMapper addressMapper) {
+    public AddressServiceImpl(AddressMapper addressMapper, LocalCache<Long, List<AddressVO>> addressCache) {
         this.addressMapper = addressMapper;
+        this.addressCache = addressCache;
     }
 
+    /**
+     * 地址簿读主库：结果会回填本地缓存，从库延迟时回填的旧值可能在跨节点失效之后写入并长期保留
+     */
     @Override
     public List<AddressVO> getAddressList(Long userId, String type) {
-        LambdaQueryWrapper<Address> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(Address::getUserId, userId);
-
-        if (StrUtil.isNotBlank(type)) {
-            queryWrapper.eq(Address::getType, type);
+        List<AddressVO> addresses = getAddressBook(userId);
+        if (StrUtil.isBlank(type)) {
+            return addresses;
         }
-
-        queryWrapper.orderByDesc(Address::getIsDefault)
-                .orderByDesc(Address::getCreatedAt);
-
-        List<Address> addresses = addressMapper.selectList(queryWrapper);
-
         return addresses.stream()
-                .map(this::convertToAddressVO)
+                .filter(address -> type.equals(address.getType()))
                 .collect(Collectors.toList());
     }
 
     @Override
     public AddressVO getAddressById(Long id, Long userId) {
-        Address address = addressMapper.selectOne(
-                new LambdaQueryWrapper<Address>()
-                        .eq(Address::getId, id)
-                        .eq(Address::getUserId, userId)
-        );
-
-        if (address == null) {
-            throw new BusinessException(ResultCode.ADDRESS_NOT_FOUND);
-        }
-
-        return convertToAddressVO(address);
+        return getAddressBook(userId).stream()
+                .filter(address -> address.getId().equals(id))
+                .findFirst()
+                .orElseThrow(() -> new BusinessException(ResultCode.ADDRESS_NOT_FOUND));
     }
 
     @Override
     @Transactional
     public AddressVO createAddress(Long userId, AddressDTO addressDTO) {
-        Address address = new Address();
-        BeanUtil.copyProperties(addressDTO, address);
+        Address address = AddressConverter.toEntity(addressDTO);
         address.setUserId(userId);
-        address.setIsDefault(Boolean.TRUE.equals(addressDTO.getIsDefault()) ? 1 : 0);
 
         // 如果设置为默认地址，先取消其他同类型默认地址
         if (Boolean.TRUE.equals(addressDTO.getIsDefault())) {
@@ -74,8 +69,9 @@ public class AddressServiceImpl implements AddressService {
         }
 
         addressMapper.insert(address);
+        addressCache.invalidateAfterCommit(userId);
 
-        return convertToAddressVO(address);
+        return AddressConverter.toVO(address);
     }
 
     @Override
@@ -91,8 +87,7 @@ public class AddressServiceImpl implements AddressService {
             throw new BusinessException(ResultCode.ADDRESS_NOT_FOUND);
         }
 
-        BeanUtil.copyProperties(addressDTO, address);
-        address.setIsDefault(Boolean.TRUE.equals(addressDTO.getIsDefault()) ? 1 : 0);
+        AddressConverter.copyToEntity(addressDTO, address);
 
         // 如果设置为默认地址，先取消其他同类型默认地址
         if (Boolean.TRUE.equals(addressDTO.getIsDefault())) {
@@ -100,11 +95,13 @@ public class AddressServiceImpl implements AddressService {
         }
 
         addressMapper.updateById(address);
+        addressCache.invalidateAfterCommit(userId);
 
-        return convertToAddressVO(address);
+        return AddressConverter.toVO(address);
     }
 
     @Override
+    @Transactional
     public void deleteAddress(Long id, Long userId) {
         int rows = addressMapper.delete(
                 new LambdaQueryWrapper<Address>()
@@ -115,6 +112,7 @@ public class AddressServiceImpl implements AddressService {
         if (rows == 0) {
             throw new BusinessException(ResultCode.ADDRESS_NOT_FOUND);
         }
+        addressCache.invalidateAfterCommit(userId);
     }
 
     @Override
@@ -136,9 +134,24 @@ public class AddressServiceImpl implements AddressService {
         // 设置当前地址为默认
         address.setIsDefault(1);
         addressMapper.updateById(address);
+        addressCache.invalidateAfterCommit(userId);
+    }
+
+    /**
+     * 用户地址簿，一次查出全部地址后在内存中排序，类型筛选也在内存中完成
+     */
+    private List<AddressVO> getAddressBook(Long userId) {
+        return addressCache.getOrLoad(userId, () -> addressMapper.selectList(
+                        new LambdaQueryWrapper<Address>().eq(Address::getUserId, userId))
+                .stream()
+                .map(AddressConverter::toVO)
+                .sorted(ADDRESS_ORDER)
+                .collect(Collectors.toUnmodifiableList()));
     }
 
     private void cancelDefaultAddress(Long userId, String type) {
+        // 批量取消会改动同一用户的多条地址，整本失效而不是逐条修改缓存
+        addressCache.invalidateAfterCommit(userId);
         addressMapper.update(null,
                 new LambdaUpdateWrapper<Address>()
                         .eq(Address::getUserId, userId)
@@ -147,12 +160,4 @@ public class AddressServiceImpl implements AddressService {
                         .set(Address::getIsDefault, 0)
         );
     }
-
-    private AddressVO convertToAddressVO(Address address) {
-        AddressVO vo = new AddressVO();
-        BeanUtil.copyProperties(address, vo);
-        vo.setIsDefault(address.getIsDefault() == 1);
-        vo.setFullAddress(address.getProvince() + address.getCity() + address.getDistrict() + address.getDetail());
-        return vo;
-    }
 }
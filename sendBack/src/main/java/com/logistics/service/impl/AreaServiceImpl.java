@@ -0,0 +1,185 @@
+package com.logistics.service.impl;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.IoUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.common.BusinessException;
+import com.logistics.common.PrecompressedBody;
+import com.logistics.common.Result;
+import com.logistics.service.AreaService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Service
+public class AreaServiceImpl implements AreaService {
+
+    private static final String BUNDLED_RESOURCE = "area/area_mini.json";
+
+    // 数据不可用时，请求触发的后台重新拉取最短间隔
+    private static final long RETRY_INTERVAL = 60_000L;
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final AsyncTaskExecutor refreshExecutor;
+
+    @Value("${area.source-url}")
+    private String sourceUrl;
+
+    @Value("${area.local-path}")
+    private String localPath;
+
+    @Value("${area.refresh.enabled:false}")
+    private boolean refreshEnabled;
+
+    private volatile PrecompressedBody snapshot;
+
+    private volatile long lastAttempt;
+
+    // 同一时刻最多一个请求触发的后台拉取
+    private final AtomicBoolean retrying = new AtomicBoolean();
+
+    // 远端拉取可能较慢，用ReentrantLock避免虚拟线程在synchronized中阻塞钉住载体线程
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    public AreaServiceImpl(RestTemplate restTemplate, ObjectMapper objectMapper,
+                           @Qualifier("applicationTaskExecutor") AsyncTaskExecutor refreshExecutor) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @PostConstruct
+    public void init() {
+        // 优先本地镜像，其次随包数据，都没有时从远端拉取一次并落盘
+        byte[] raw = readLocal();
+        if (raw != null && swap(raw)) {
+            return;
+        }
+        if (!refreshAreaData()) {
+            log.warn("地区数据不可用，将在请求时后台重试: {}", sourceUrl);
+        }
+    }
+
+    @Override
+    public PrecompressedBody getAreaData() {
+        PrecompressedBody current = snapshot;
+        if (current == null) {
+            // 远端拉取放到后台执行，请求线程不等待也不持锁，本次直接返回失败
+            retryInBackground();
+            throw new BusinessException("获取地区数据失败");
+        }
+        return current;
+    }
+
+    private void retryInBackground() {
+        if (System.currentTimeMillis() - lastAttempt <= RETRY_INTERVAL || !retrying.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refreshAreaData();
+                } finally {
+                    retrying.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            retrying.set(false);
+            log.warn("提交地区数据拉取任务失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean refreshAreaData() {
+        refreshLock.lock();
+        try {
+            lastAttempt = System.currentTimeMillis();
+            byte[] raw;
+            try {
+                raw = restTemplate.getForObject(sourceUrl, byte[].class);
+            } catch (Exception e) {
+                log.error("拉取地区数据失败: {}", e.getMessage());
+                return false;
+            }
+            if (raw == null || !swap(raw)) {
+                return false;
+            }
+            writeLocal(raw);
+            return true;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${area.refresh.interval:86400000}",
+            initialDelayString = "${area.refresh.interval:86400000}")
+    public void scheduledRefresh() {
+        if (refreshEnabled) {
+            refreshAreaData();
+        }
+    }
+
+    /**
+     * 校验并预先生成Result包装后的JSON及gzip字节，成功后整体替换快照
+     */
+    private boolean swap(byte[] raw) {
+        try {
+            JsonNode data = objectMapper.readTree(raw);
+            if (data == null || !data.isObject()) {
+                log.error("地区数据格式错误");
+                return false;
+            }
+            snapshot = PrecompressedBody.of(objectMapper.writeValueAsBytes(Result.success(data)));
+            log.info("地区数据已加载: {} bytes", raw.length);
+            return true;
+        } catch (IOException e) {
+            log.error("解析地区数据失败: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private byte[] readLocal() {
+        File file = FileUtil.file(localPath);
+        if (file.isFile()) {
+            return FileUtil.readBytes(file);
+        }
+        ClassPathResource resource = new ClassPathResource(BUNDLED_RESOURCE);
+        if (resource.exists()) {
+            try (InputStream in = resource.getInputStream()) {
+                return IoUtil.readBytes(in);
+            } catch (IOException e) {
+                log.error("读取内置地区数据失败: {}", e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private void writeLocal(byte[] raw) {
+        try {
+            File file = FileUtil.file(localPath);
+            FileUtil.mkParentDirs(file);
+            File tmp = new File(file.getPath() + ".tmp");
+            FileUtil.writeBytes(raw, tmp);
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            log.error("写入地区数据镜像失败: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.logistics.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.logistics.archive.LogisticsNodeArchiveCodec;
+import com.logistics.entity.LogisticsNode;
+import com.logistics.entity.LogisticsNodeArchive;
+import com.logistics.entity.Order;
+import com.logistics.mapper.LogisticsNodeArchiveMapper;
+import com.logistics.mapper.LogisticsNodeMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 物流节点读取：先查热表，已归档的订单再从归档表补齐，调用方无需区分节点存放位置
+ */
+@Component
+public class LogisticsNodeReader {
+
+    private static final Comparator<LogisticsNode> TIME_DESC =
+            Comparator.comparing(LogisticsNode::getTime, Comparator.reverseOrder());
+
+    private final LogisticsNodeMapper logisticsNodeMapper;
+    private final LogisticsNodeArchiveMapper archiveMapper;
+    private final LogisticsNodeArchiveCodec archiveCodec;
+
+    public LogisticsNodeReader(LogisticsNodeMapper logisticsNodeMapper, LogisticsNodeArchiveMapper archiveMapper,
+                               LogisticsNodeArchiveCodec archiveCodec) {
+        this.logisticsNodeMapper = logisticsNodeMapper;
+        this.archiveMapper = archiveMapper;
+        this.archiveCodec = archiveCodec;
+    }
+
+    /**
+     * 单个订单的节点，按时间倒序
+     */
+    public List<LogisticsNode> listByOrder(Order order) {
+        return listByOrders(List.of(order)).getOrDefault(order.getId(), Collections.emptyList());
+    }
+
+    /**
+     * 多个订单的节点，按订单ID分组，组内按时间倒序；没有节点的订单不在结果中
+     */
+    public Map<Long, List<LogisticsNode>> listByOrders(Collection<Order> orders) {
+        if (orders.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, List<LogisticsNode>> nodesByOrder = new HashMap<>(logisticsNodeMapper.selectList(
+                new LambdaQueryWrapper<LogisticsNode>()
+                        .in(LogisticsNode::getOrderId, orders.stream().map(Order::getId).collect(Collectors.toList()))
+                        .orderByDesc(LogisticsNode::getTime)
+        ).stream().collect(Collectors.groupingBy(LogisticsNode::getOrderId)));
+
+        // 已归档的订单；以及热表查不到节点的已签收订单，可能是读订单后归档任务刚搬走
+        List<Long> archivedIds = orders.stream()
+                .filter(order -> Integer.valueOf(1).equals(order.getNodesArchived())
+                        || ("delivered".equals(order.getStatus()) && !nodesByOrder.containsKey(order.getId())))
+                .map(Order::getId)
+                .collect(Collectors.toList());
+        if (archivedIds.isEmpty()) {
+            return nodesByOrder;
+        }
+
+        for (LogisticsNodeArchive archive : archiveMapper.selectBatchIds(archivedIds)) {
+            List<LogisticsNode> nodes = new ArrayList<>(archiveCodec.decode(archive));
+            // 归档后补录的节点仍在热表，合并后重新排序
+            List<LogisticsNode> hotNodes = nodesByOrder.get(archive.getOrderId());
+            if (hotNodes != null) {
+                nodes.addAll(hotNodes);
+                nodes.sort(TIME_DESC);
+            }
+            nodesByOrder.put(archive.getOrderId(), nodes);
+        }
+        return nodesByOrder;
+    }
+}
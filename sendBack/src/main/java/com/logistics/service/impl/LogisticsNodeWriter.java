@@ -0,0 +1,147 @@
+package com.logistics.service.impl;
+
+import com.logistics.cache.LocalCache;
+import com.logistics.common.BusinessException;
+import com.logistics.common.ResultCode;
+import com.logistics.dto.LogisticsNodeDTO;
+import com.logistics.entity.LogisticsNode;
+import com.logistics.entity.Order;
+import com.logistics.mapper.LogisticsNodeMapper;
+import com.logistics.mapper.OrderMapper;
+import com.logistics.outbox.OutboxWriter;
+import com.logistics.stream.TrackingEventHub;
+import com.logistics.vo.OrderVO;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 物流节点写入，供单条接口、批量接口和预写日志入库共用
+ */
+@Component
+public class LogisticsNodeWriter {
+
+    // 单条INSERT语句的最大行数
+    private static final int INSERT_CHUNK_SIZE = 500;
+
+    private final LogisticsNodeMapper logisticsNodeMapper;
+    private final OrderMapper orderMapper;
+    private final LocalCache<String, OrderVO> trackingCache;
+    private final TrackingEventHub trackingEventHub;
+    private final OutboxWriter outboxWriter;
+
+    public LogisticsNodeWriter(LogisticsNodeMapper logisticsNodeMapper, OrderMapper orderMapper,
+                               LocalCache<String, OrderVO> trackingCache, TrackingEventHub trackingEventHub,
+                               OutboxWriter outboxWriter) {
+        this.logisticsNodeMapper = logisticsNodeMapper;
+        this.orderMapper = orderMapper;
+        this.trackingCache = trackingCache;
+        this.trackingEventHub = trackingEventHub;
+        this.outboxWriter = outboxWriter;
+    }
+
+    @Transactional
+    public LogisticsNode write(LogisticsNodeDTO nodeDTO) {
+        // 验证订单存在
+        Order order = orderMapper.selectById(nodeDTO.getOrderId());
+        if (order == null) {
+            throw new BusinessException(ResultCode.ORDER_NOT_FOUND);
+        }
+
+        // 创建新节点，当前节点只移动订单上的指针，不再改写历史节点
+        LogisticsNode node = buildNode(nodeDTO, order);
+        if (node.getIsActive() == 1 && !isNewerThanCurrent(order, node)) {
+            node.setIsActive(0);
+        }
+        logisticsNodeMapper.insert(node);
+        if (node.getIsActive() == 1) {
+            orderMapper.updateCurrentNode(node);
+        }
+        trackingCache.invalidateAfterCommit(order.getTrackingNumber());
+        outboxWriter.appendNodesAdded(List.of(node));
+        trackingEventHub.publishNodesAfterCommit(List.of(node));
+
+        return node;
+    }
+
+    /**
+     * 写入已校验的节点，返回与入参一一对应的节点，订单不存在的位置为null，需在调用方事务内执行
+     */
+    public List<LogisticsNode> writeBatch(List<LogisticsNodeDTO> nodeDTOs) {
+        LogisticsNode[] written = new LogisticsNode[nodeDTOs.size()];
+        if (nodeDTOs.isEmpty()) {
+            return Arrays.asList(written);
+        }
+
+        // 一次查询所有涉及的订单
+        Set<Long> orderIds = nodeDTOs.stream()
+                .map(LogisticsNodeDTO::getOrderId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, Order> orders = orderMapper.selectBatchIds(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        List<LogisticsNode> nodes = new ArrayList<>(nodeDTOs.size());
+        // 每个订单只取时间最新的当前节点(同一时间取靠后的)，与逐条提交结果一致
+        Map<Long, LogisticsNode> currentNodes = new HashMap<>();
+        for (int i = 0; i < nodeDTOs.size(); i++) {
+            LogisticsNodeDTO dto = nodeDTOs.get(i);
+            Order order = orders.get(dto.getOrderId());
+            if (order == null) {
+                continue;
+            }
+            LogisticsNode node = buildNode(dto, order);
+            nodes.add(node);
+            written[i] = node;
+            if (node.getIsActive() == 1 && isNewerThanCurrent(order, node)) {
+                currentNodes.merge(order.getId(), node,
+                        (current, candidate) -> candidate.getTime().isBefore(current.getTime()) ? current : candidate);
+            }
+        }
+        // 未成为当前节点的按普通节点入库
+        for (LogisticsNode node : nodes) {
+            if (node.getIsActive() == 1 && currentNodes.get(node.getOrderId()) != node) {
+                node.setIsActive(0);
+            }
+        }
+
+        // 多行批量插入
+        for (int from = 0; from < nodes.size(); from += INSERT_CHUNK_SIZE) {
+            logisticsNodeMapper.insertBatch(nodes.subList(from, Math.min(from + INSERT_CHUNK_SIZE, nodes.size())));
+        }
+
+        // 回填ID后逐单移动当前节点指针，按主键更新
+        currentNodes.values().forEach(orderMapper::updateCurrentNode);
+
+        orders.values().forEach(order -> trackingCache.invalidateAfterCommit(order.getTrackingNumber()));
+        outboxWriter.appendNodesAdded(nodes);
+        trackingEventHub.publishNodesAfterCommit(nodes);
+
+        return Arrays.asList(written);
+    }
+
+    private boolean isNewerThanCurrent(Order order, LogisticsNode node) {
+        return order.getCurrentNodeTime() == null || !order.getCurrentNodeTime().isAfter(node.getTime());
+    }
+
+    public LogisticsNode buildNode(LogisticsNodeDTO nodeDTO, Order order) {
+        LogisticsNode node = new LogisticsNode();
+        node.setOrderId(nodeDTO.getOrderId());
+        node.setTrackingNumber(order.getTrackingNumber());
+        node.setTime(nodeDTO.getTime() != null ? nodeDTO.getTime() : LocalDateTime.now());
+        node.setLocation(nodeDTO.getLocation());
+        node.setStatus(nodeDTO.getStatus());
+        node.setDescription(nodeDTO.getDescription());
+        node.setIsActive(Boolean.TRUE.equals(nodeDTO.getIsActive()) ? 1 : 0);
+        return node;
+    }
+}
@@ -1,48 +1,55 @@
 package com.logistics.service.impl;
 
-import cn.hutool.core.bean.BeanUtil;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.logistics.common.BusinessException;
 import com.logistics.common.ResultCode;
+import com.logistics.converter.LogisticsNodeConverter;
+import com.logistics.converter.OrderConverter;
 import com.logistics.dto.LogisticsNodeDTO;
 import com.logistics.entity.LogisticsNode;
 import com.logistics.entity.Order;
-import com.logistics.mapper.LogisticsNodeMapper;
+import com.logistics.journal.JournaledNodeWriter;
 import com.logistics.mapper.OrderMapper;
 import com.logistics.service.LogisticsService;
+import com.logistics.vo.LogisticsBatchResultVO;
 import com.logistics.vo.LogisticsNodeVO;
 import com.logistics.vo.LogisticsTrackingVO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class LogisticsServiceImpl implements LogisticsService {
 
-    private final LogisticsNodeMapper logisticsNodeMapper;
+    private final LogisticsNodeReader logisticsNodeReader;
     private final OrderMapper orderMapper;
+    private final Validator validator;
+    private final LogisticsNodeWriter logisticsNodeWriter;
+    private final ObjectProvider<JournaledNodeWriter> journaledNodeWriterProvider;
 
-    private static final Map<String, String> STATUS_TEXT_MAP = new HashMap<>();
+    @Value("${logistics.batch.max-size:1000}")
+    private int batchMaxSize;
 
-    static {
-        STATUS_TEXT_MAP.put("pending", "待取件");
-        STATUS_TEXT_MAP.put("in_transit", "运输中");
-        STATUS_TEXT_MAP.put("delivered", "已签收");
-        STATUS_TEXT_MAP.put("exception", "异常");
-    }
-
-    public LogisticsServiceImpl(LogisticsNodeMapper logisticsNodeMapper, OrderMapper orderMapper) {
-        this.logisticsNodeMapper = logisticsNodeMapper;
+    public LogisticsServiceImpl(LogisticsNodeReader logisticsNodeReader, OrderMapper orderMapper,
+                                Validator validator, LogisticsNodeWriter logisticsNodeWriter,
+                                ObjectProvider<JournaledNodeWriter> journaledNodeWriterProvider) {
+        this.logisticsNodeReader = logisticsNodeReader;
         this.orderMapper = orderMapper;
+        this.validator = validator;
+        this.logisticsNodeWriter = logisticsNodeWriter;
+        this.journaledNodeWriterProvider = journaledNodeWriterProvider;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public LogisticsTrackingVO getLogisticsByOrderId(Long orderId) {
         // 查询订单
         Order order = orderMapper.selectById(orderId);
@@ -51,11 +58,7 @@ public class LogisticsServiceImpl implements LogisticsService {
         }
 
         // 查询物流节点
-        List<LogisticsNode> nodes = logisticsNodeMapper.selectList(
-                new LambdaQueryWrapper<LogisticsNode>()
-                        .eq(LogisticsNode::getOrderId, orderId)
-                        .orderByDesc(LogisticsNode::getTime)
-        );
+        List<LogisticsNode> nodes = logisticsNodeReader.listByOrder(order);
 
         // 构建返回结果
         LogisticsTrackingVO vo = new LogisticsTrackingVO();
@@ -64,14 +67,11 @@ public class LogisticsServiceImpl implements LogisticsService {
         vo.setCourierCompany(order.getCourierCompany());
         vo.setCourierLogo(order.getCourierLogo());
         vo.setStatus(order.getStatus());
-        vo.setStatusText(STATUS_TEXT_MAP.getOrDefault(order.getStatus(), "未知"));
+        vo.setStatusText(OrderConverter.statusText(order.getStatus()));
 
-        List<LogisticsNodeVO> nodeVOs = nodes.stream().map(node -> {
-            LogisticsNodeVO nodeVO = new LogisticsNodeVO();
-            BeanUtil.copyProperties(node, nodeVO);
-            nodeVO.setIsActive(node.getIsActive() == 1);
-            return nodeVO;
-        }).collect(Collectors.toList());
+        List<LogisticsNodeVO> nodeVOs = nodes.stream()
+                .map(node -> LogisticsNodeConverter.toVO(node, order.getCurrentNodeId()))
+                .collect(Collectors.toList());
 
         vo.setNodes(nodeVOs);
 
@@ -79,40 +79,80 @@ public class LogisticsServiceImpl implements LogisticsService {
     }
 
     @Override
-    @Transactional
     public LogisticsNodeVO addLogisticsNode(LogisticsNodeDTO nodeDTO) {
-        // 验证订单存在
-        Order order = orderMapper.selectById(nodeDTO.getOrderId());
-        if (order == null) {
-            throw new BusinessException(ResultCode.ORDER_NOT_FOUND);
+        // 预写模式：事件落盘到本地日志即返回，由后台批量入库
+        JournaledNodeWriter journaledNodeWriter = journaledNodeWriterProvider.getIfAvailable();
+        if (journaledNodeWriter != null) {
+            if (nodeDTO.getTime() == null) {
+                nodeDTO.setTime(LocalDateTime.now());
+            }
+            journaledNodeWriter.append(nodeDTO);
+
+            return LogisticsNodeConverter.toVO(nodeDTO);
+        }
+
+        return LogisticsNodeConverter.toVO(logisticsNodeWriter.write(nodeDTO));
+    }
+
+    @Override
+    @Transactional
+    public LogisticsBatchResultVO addLogisticsNodes(List<LogisticsNodeDTO> nodeDTOs) {
+        if (nodeDTOs.size() > batchMaxSize) {
+            throw new BusinessException(ResultCode.BAD_REQUEST.getCode(), "单批最多提交" + batchMaxSize + "条");
         }
 
-        // 如果设置为当前节点，先取消其他节点的active状态
-        if (Boolean.TRUE.equals(nodeDTO.getIsActive())) {
-            logisticsNodeMapper.update(null,
-                    new LambdaUpdateWrapper<LogisticsNode>()
-                            .eq(LogisticsNode::getOrderId, nodeDTO.getOrderId())
-                            .set(LogisticsNode::getIsActive, 0)
-            );
+        List<LogisticsBatchResultVO.Item> items = new ArrayList<>(nodeDTOs.size());
+        List<Integer> validIndexes = new ArrayList<>();
+        List<LogisticsNodeDTO> validDTOs = new ArrayList<>();
+
+        // 逐条校验，失败的条目不影响其余条目
+        for (int i = 0; i < nodeDTOs.size(); i++) {
+            LogisticsBatchResultVO.Item item = new LogisticsBatchResultVO.Item();
+            item.setIndex(i);
+            item.setSuccess(false);
+            item.setMessage(validate(nodeDTOs.get(i)));
+            items.add(item);
+            if (item.getMessage() == null) {
+                validIndexes.add(i);
+                validDTOs.add(nodeDTOs.get(i));
+            }
         }
 
-        // 创建新节点
-        LogisticsNode node = new LogisticsNode();
-        node.setOrderId(nodeDTO.getOrderId());
-        node.setTrackingNumber(order.getTrackingNumber());
-        node.setTime(nodeDTO.getTime() != null ? nodeDTO.getTime() : LocalDateTime.now());
-        node.setLocation(nodeDTO.getLocation());
-        node.setStatus(nodeDTO.getStatus());
-        node.setDescription(nodeDTO.getDescription());
-        node.setIsActive(Boolean.TRUE.equals(nodeDTO.getIsActive()) ? 1 : 0);
+        List<LogisticsNode> written = logisticsNodeWriter.writeBatch(validDTOs);
+        for (int k = 0; k < validIndexes.size(); k++) {
+            LogisticsBatchResultVO.Item item = items.get(validIndexes.get(k));
+            LogisticsNode node = written.get(k);
+            if (node == null) {
+                item.setMessage(ResultCode.ORDER_NOT_FOUND.getMessage());
+            } else {
+                item.setSuccess(true);
+                item.setNode(LogisticsNodeConverter.toVO(node));
+            }
+        }
 
-        logisticsNodeMapper.insert(node);
+        return buildBatchResult(items);
+    }
 
-        // 返回结果
-        LogisticsNodeVO vo = new LogisticsNodeVO();
-        BeanUtil.copyProperties(node, vo);
-        vo.setIsActive(node.getIsActive() == 1);
+    private String validate(LogisticsNodeDTO dto) {
+        if (dto == null) {
+            return "物流节点不能为空";
+        }
+        Set<ConstraintViolation<LogisticsNodeDTO>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining("; "));
+    }
 
+    private LogisticsBatchResultVO buildBatchResult(List<LogisticsBatchResultVO.Item> items) {
+        int successCount = (int) items.stream().filter(LogisticsBatchResultVO.Item::getSuccess).count();
+        LogisticsBatchResultVO vo = new LogisticsBatchResultVO();
+        vo.setTotal(items.size());
+        vo.setSuccessCount(successCount);
+        vo.setFailureCount(items.size() - successCount);
+        vo.setItems(items);
         return vo;
     }
 }
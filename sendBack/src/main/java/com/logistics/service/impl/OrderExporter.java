@@ -0,0 +1,316 @@
+package com.logistics.service.impl;
+
+import cn.hutool.core.date.DatePattern;
+import cn.hutool.core.text.csv.CsvWriter;
+import cn.hutool.core.util.StrUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.logistics.archive.LogisticsNodeArchiveCodec;
+import com.logistics.common.BusinessException;
+import com.logistics.common.ResultCode;
+import com.logistics.converter.LogisticsNodeConverter;
+import com.logistics.converter.OrderConverter;
+import com.logistics.dto.OrderExportQueryDTO;
+import com.logistics.entity.LogisticsNode;
+import com.logistics.entity.LogisticsNodeArchive;
+import com.logistics.entity.Order;
+import com.logistics.entity.OrderNodeRow;
+import com.logistics.mapper.OrderMapper;
+import com.logistics.vo.OrderVO;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+/**
+ * 订单导出：一条连接查询流式读出订单及其节点，相邻行按订单聚合后立即写出，
+ * 内存中只保留当前一个订单的节点，与导出总量无关。需在只读事务内调用。
+ * 导出全程占用一个连接，因此限制同时进行的导出数和单次导出时长；
+ * 正常结束时在末尾写结束标记和订单数，没有结束标记的文件即为不完整
+ */
+@Slf4j
+@Component
+public class OrderExporter {
+
+    private static final Comparator<LogisticsNode> TIME_DESC =
+            Comparator.comparing(LogisticsNode::getTime, Comparator.reverseOrder());
+
+    private static final String[] CSV_HEADER = {
+            "订单ID", "快递单号", "快递公司", "订单状态", "物品名称",
+            "寄件人姓名", "寄件人电话", "寄件人地址", "收件人姓名", "收件人电话", "收件人地址",
+            "预计送达时间", "下单时间", "节点时间", "节点位置", "节点状态", "节点描述", "是否当前节点"
+    };
+
+    private final OrderMapper orderMapper;
+    private final LogisticsNodeArchiveCodec archiveCodec;
+    private final ObjectWriter jsonWriter;
+
+    // 同时进行的导出数，每个导出占用一个数据库连接直到下载结束
+    private final Semaphore permits;
+
+    @Value("${order.export.timeout:600000}")
+    private long timeout;
+
+    public OrderExporter(OrderMapper orderMapper, LogisticsNodeArchiveCodec archiveCodec, ObjectMapper objectMapper,
+                         @Value("${order.export.max-concurrent:4}") int maxConcurrent) {
+        this.orderMapper = orderMapper;
+        this.archiveCodec = archiveCodec;
+        // 每个订单写完不刷新，由输出缓冲区攒满后再写到连接
+        this.jsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * 按条件导出，返回导出的订单数；format为csv时每个节点一行，ndjson时每个订单一行并内嵌节点(按时间倒序)。
+     * 并发导出已满时在写出任何内容前抛出业务异常
+     */
+    public long export(Long userId, OrderExportQueryDTO query, OutputStream out) {
+        if (!permits.tryAcquire()) {
+            throw new BusinessException(ResultCode.SERVICE_BUSY.getCode(), "导出任务较多，请稍后重试");
+        }
+        try {
+            return doExport(userId, query, out);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private long doExport(Long userId, OrderExportQueryDTO query, OutputStream out) {
+        LocalDateTime from = query.getStartDate() != null ? query.getStartDate().atStartOfDay() : null;
+        LocalDateTime to = query.getEndDate() != null ? query.getEndDate().plusDays(1).atStartOfDay() : null;
+        String status = StrUtil.isNotBlank(query.getStatus()) ? query.getStatus() : null;
+        // 客户端读得慢时写出会阻塞，连接和游标随之被占住，超过时长即中止
+        long deadline = System.currentTimeMillis() + timeout;
+
+        long exported = 0;
+        try (OrderSink sink = "ndjson".equals(query.getFormat()) ? new NdjsonSink(out, jsonWriter) : new CsvSink(out)) {
+            try (Cursor<OrderNodeRow> cursor = orderMapper.scanWithNodes(userId, status, from, to)) {
+                Order current = null;
+                List<LogisticsNode> nodes = new ArrayList<>();
+                byte[] archivedNodes = null;
+                for (OrderNodeRow row : cursor) {
+                    Order order = row.getOrder();
+                    if (current == null || !current.getId().equals(order.getId())) {
+                        if (current != null) {
+                            sink.write(current, mergeNodes(current, nodes, archivedNodes));
+                            exported++;
+                            checkDeadline(deadline);
+                        }
+                        current = order;
+                        nodes = new ArrayList<>();
+                        archivedNodes = row.getArchivedNodes();
+                    }
+                    if (row.getNode() != null) {
+                        LogisticsNode node = row.getNode();
+                        node.setOrderId(order.getId());
+                        node.setTrackingNumber(order.getTrackingNumber());
+                        nodes.add(node);
+                    }
+                }
+                if (current != null) {
+                    sink.write(current, mergeNodes(current, nodes, archivedNodes));
+                    exported++;
+                }
+                sink.finish(exported);
+            } catch (IOException e) {
+                // 多为客户端中途断开，不再尝试写中断标记
+                throw new UncheckedIOException(e);
+            } catch (RuntimeException e) {
+                log.error("用户 {} 导出中断，已写出 {} 条: {}", userId, exported, e.getMessage());
+                sink.abort(e instanceof BusinessException ? e.getMessage() : "导出中断");
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("用户 {} 导出订单 {} 条", userId, exported);
+        return exported;
+    }
+
+    private static void checkDeadline(long deadline) {
+        if (System.currentTimeMillis() > deadline) {
+            throw new BusinessException(ResultCode.SERVICE_BUSY.getCode(), "导出超时，请缩小筛选范围后重试");
+        }
+    }
+
+    /**
+     * 已归档订单的节点从归档解出，与归档后补录到热表的节点合并，与 LogisticsNodeReader 一致
+     */
+    private List<LogisticsNode> mergeNodes(Order order, List<LogisticsNode> hotNodes, byte[] archivedNodes) {
+        List<LogisticsNode> nodes = hotNodes;
+        if (archivedNodes != null) {
+            LogisticsNodeArchive archive = new LogisticsNodeArchive();
+            archive.setOrderId(order.getId());
+            archive.setNodes(archivedNodes);
+            nodes = new ArrayList<>(archiveCodec.decode(archive));
+            nodes.addAll(hotNodes);
+        }
+        nodes.sort(TIME_DESC);
+        return nodes;
+    }
+
+    private interface OrderSink extends AutoCloseable {
+
+        void write(Order order, List<LogisticsNode> nodes) throws IOException;
+
+        /**
+         * 正常结束时写结束标记和订单数
+         */
+        void finish(long orderCount) throws IOException;
+
+        /**
+         * 中途失败时尽力写中断标记，写不出去也不再抛出
+         */
+        void abort(String reason);
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * CSV输出，UTF-8带BOM以便Excel识别中文；每个节点一行，没有节点的订单输出一行且节点列为空。
+     * 末行为 #END,订单数；中途失败时末行为 #ERROR,原因
+     */
+    private static class CsvSink implements OrderSink {
+
+        private final CsvWriter writer;
+
+        private CsvSink(OutputStream out) throws IOException {
+            out.write(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+            Writer buffered = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.writer = new CsvWriter(buffered);
+            writer.writeHeaderLine(CSV_HEADER);
+        }
+
+        @Override
+        public void write(Order order, List<LogisticsNode> nodes) {
+            if (nodes.isEmpty()) {
+                writer.writeLine(orderColumns(order, null));
+                return;
+            }
+            for (LogisticsNode node : nodes) {
+                writer.writeLine(orderColumns(order, node));
+            }
+        }
+
+        private static String[] orderColumns(Order order, LogisticsNode node) {
+            return new String[]{
+                    String.valueOf(order.getId()),
+                    order.getTrackingNumber(),
+                    order.getCourierCompany(),
+                    OrderConverter.statusText(order.getStatus()),
+                    order.getItemName(),
+                    order.getSenderName(),
+                    order.getSenderPhone(),
+                    order.getSenderAddress(),
+                    order.getReceiverName(),
+                    order.getReceiverPhone(),
+                    order.getReceiverAddress(),
+                    order.getEstimatedTime(),
+                    format(order.getCreatedAt()),
+                    node != null ? format(node.getTime()) : null,
+                    node != null ? node.getLocation() : null,
+                    node != null ? node.getStatus() : null,
+                    node != null ? node.getDescription() : null,
+                    node != null ? (Objects.equals(node.getId(), order.getCurrentNodeId()) ? "是" : "否") : null
+            };
+        }
+
+        @Override
+        public void finish(long orderCount) {
+            writer.writeLine("#END", String.valueOf(orderCount));
+        }
+
+        @Override
+        public void abort(String reason) {
+            try {
+                writer.writeLine("#ERROR", reason);
+            } catch (Exception e) {
+                log.debug("写入导出中断标记失败: {}", e.getMessage());
+            }
+        }
+
+        private static String format(TemporalAccessor time) {
+            return time != null ? DatePattern.NORM_DATETIME_FORMATTER.format(time) : null;
+        }
+
+        @Override
+        public void close() {
+            writer.close();
+        }
+    }
+
+    /**
+     * NDJSON输出，每行一个订单视图，结构与订单详情接口一致。
+     * 末行为 {"end":true,"orderCount":订单数}；中途失败时末行为 {"error":原因}
+     */
+    private static class NdjsonSink implements OrderSink {
+
+        private final JsonGenerator generator;
+
+        private final ObjectWriter jsonWriter;
+
+        private NdjsonSink(OutputStream out, ObjectWriter jsonWriter) throws IOException {
+            this.generator = jsonWriter.getFactory().createGenerator(out);
+            // 顶层值之间默认以空格分隔，这里自行换行
+            this.generator.setRootValueSeparator(null);
+            this.jsonWriter = jsonWriter;
+        }
+
+        @Override
+        public void write(Order order, List<LogisticsNode> nodes) throws IOException {
+            OrderVO orderVO = OrderConverter.toVO(order);
+            orderVO.setLogisticsNodes(nodes.stream()
+                    .map(node -> LogisticsNodeConverter.toVO(node, order.getCurrentNodeId()))
+                    .collect(Collectors.toList()));
+            writeLine(orderVO);
+        }
+
+        @Override
+        public void finish(long orderCount) throws IOException {
+            Map<String, Object> trailer = new LinkedHashMap<>();
+            trailer.put("end", true);
+            trailer.put("orderCount", orderCount);
+            writeLine(trailer);
+        }
+
+        @Override
+        public void abort(String reason) {
+            try {
+                writeLine(Map.of("error", reason));
+            } catch (Exception e) {
+                log.debug("写入导出中断标记失败: {}", e.getMessage());
+            }
+        }
+
+        private void writeLine(Object value) throws IOException {
+            jsonWriter.writeValue(generator, value);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,487 @@
+package com.logistics.service.impl;
+
+import cn.hutool.core.io.BOMInputStream;
+import cn.hutool.core.io.IORuntimeException;
+import cn.hutool.core.text.csv.CsvParser;
+import cn.hutool.core.text.csv.CsvReadConfig;
+import cn.hutool.core.text.csv.CsvRow;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.StrUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.logistics.cache.LocalCache;
+import com.logistics.common.BusinessException;
+import com.logistics.common.ResultCode;
+import com.logistics.converter.OrderConverter;
+import com.logistics.dto.OrderCreateDTO;
+import com.logistics.entity.LogisticsNode;
+import com.logistics.entity.Order;
+import com.logistics.mapper.LogisticsNodeMapper;
+import com.logistics.mapper.OrderMapper;
+import com.logistics.outbox.OutboxWriter;
+import com.logistics.search.OrderSearchIndex;
+import com.logistics.sequence.TrackingNumberAllocator;
+import com.logistics.vo.OrderImportVO;
+import com.logistics.vo.OrderVO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * 订单批量导入：边读边校验，攒够一批后在一个事务内多行插入订单、初始节点、搜索索引、计数和变更事件。
+ * 内存占用只与批大小有关，某批写入失败只影响该批，进度按批发布到缓存供轮询
+ */
+@Slf4j
+@Component
+public class OrderImporter {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    // CSV表头，字段名和中文列名均可
+    private static final Map<String, BiConsumer<OrderCreateDTO, String>> CSV_COLUMNS = new HashMap<>();
+
+    static {
+        column(OrderCreateDTO::setCourierCompany, "courierCompany", "快递公司");
+        column(OrderCreateDTO::setCourierLogo, "courierLogo", "快递公司Logo");
+        column(OrderCreateDTO::setItemName, "itemName", "物品名称");
+        column(OrderCreateDTO::setSenderName, "senderName", "寄件人姓名");
+        column(OrderCreateDTO::setSenderPhone, "senderPhone", "寄件人电话");
+        column(OrderCreateDTO::setSenderAddress, "senderAddress", "寄件人地址");
+        column(OrderCreateDTO::setReceiverName, "receiverName", "收件人姓名");
+        column(OrderCreateDTO::setReceiverPhone, "receiverPhone", "收件人电话");
+        column(OrderCreateDTO::setReceiverAddress, "receiverAddress", "收件人地址");
+        column(OrderCreateDTO::setEstimatedTime, "estimatedTime", "预计送达时间");
+    }
+
+    private final OrderMapper orderMapper;
+    private final LogisticsNodeMapper logisticsNodeMapper;
+    private final OrderSearchIndex orderSearchIndex;
+    private final TrackingNumberAllocator trackingNumberAllocator;
+    private final OrderStatusCounter orderStatusCounter;
+    private final OutboxWriter outboxWriter;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final LocalCache<String, OrderImportVO> orderImportCache;
+    private final ObjectReader dtoReader;
+
+    @Value("${order.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${order.import.max-rows:100000}")
+    private long maxRows;
+
+    @Value("${order.import.max-errors:1000}")
+    private int maxErrors;
+
+    @Value("${order.import.max-line-length:65536}")
+    private int maxLineLength;
+
+    public OrderImporter(OrderMapper orderMapper, LogisticsNodeMapper logisticsNodeMapper,
+                         OrderSearchIndex orderSearchIndex, TrackingNumberAllocator trackingNumberAllocator,
+                         OrderStatusCounter orderStatusCounter, OutboxWriter outboxWriter, Validator validator,
+                         TransactionTemplate transactionTemplate, LocalCache<String, OrderImportVO> orderImportCache,
+                         ObjectMapper objectMapper) {
+        this.orderMapper = orderMapper;
+        this.logisticsNodeMapper = logisticsNodeMapper;
+        this.orderSearchIndex = orderSearchIndex;
+        this.trackingNumberAllocator = trackingNumberAllocator;
+        this.orderStatusCounter = orderStatusCounter;
+        this.outboxWriter = outboxWriter;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.orderImportCache = orderImportCache;
+        this.dtoReader = objectMapper.readerFor(OrderCreateDTO.class);
+    }
+
+    /**
+     * 按格式(csv或ndjson，也可传Content-Type)读取输入流并导入，读完后返回结果；importId为空时自动生成
+     */
+    public OrderImportVO importOrders(Long userId, String importId, String format, InputStream in) {
+        String resolvedFormat = resolveFormat(format);
+        String id = StrUtil.isNotBlank(importId) ? importId.trim() : IdUtil.fastSimpleUUID();
+        String cacheKey = cacheKey(userId, id);
+        Progress progress = new Progress(id);
+        // 检查与占位需原子完成，否则同一importId的并发请求可能同时开始导入
+        if (orderImportCache.putIfAbsent(cacheKey, progress.snapshot(false), OrderImportVO::getFinished) != null) {
+            throw new BusinessException(ResultCode.BAD_REQUEST.getCode(), "导入任务正在进行: " + id);
+        }
+        List<OrderCreateDTO> chunk = new ArrayList<>(chunkSize);
+        List<Long> lines = new ArrayList<>(chunkSize);
+        try (RowSource source = FORMAT_CSV.equals(resolvedFormat) ? new CsvSource(in) : new NdjsonSource(in, dtoReader, maxLineLength)) {
+            Row row;
+            while ((row = source.next()) != null) {
+                if (progress.processed >= maxRows) {
+                    progress.abortReason = "超过单次导入上限" + maxRows + "行，其余行未处理";
+                    break;
+                }
+                progress.processed++;
+                String error = row.error != null ? row.error : validate(row.dto);
+                if (error != null) {
+                    progress.fail(row.line, error);
+                } else {
+                    chunk.add(row.dto);
+                    lines.add(row.line);
+                    if (chunk.size() >= chunkSize) {
+                        writeChunk(userId, chunk, lines, progress);
+                    }
+                }
+                if (progress.processed % chunkSize == 0) {
+                    orderImportCache.put(cacheKey, progress.snapshot(false));
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(userId, chunk, lines, progress);
+            }
+        } catch (BusinessException e) {
+            // 表头不合法等整体性错误，在读取任何数据行之前抛出
+            orderImportCache.remove(cacheKey);
+            throw e;
+        } catch (IOException | IORuntimeException e) {
+            // 上传中断，已提交的批次保留
+            log.warn("订单导入 {} 读取中断: {}", id, e.getMessage());
+            progress.abortReason = "读取上传内容中断: " + e.getMessage();
+        } catch (RuntimeException e) {
+            // 标记结束，同一importId可以重新提交
+            progress.abortReason = "导入异常中止";
+            orderImportCache.put(cacheKey, progress.snapshot(true));
+            throw e;
+        }
+
+        OrderImportVO result = progress.snapshot(true);
+        orderImportCache.put(cacheKey, result);
+        return result;
+    }
+
+    public OrderImportVO getProgress(Long userId, String importId) {
+        OrderImportVO vo = orderImportCache.get(cacheKey(userId, importId), false);
+        if (vo == null) {
+            throw new BusinessException(ResultCode.NOT_FOUND.getCode(), "导入任务不存在或已过期");
+        }
+        return vo;
+    }
+
+    /**
+     * 写入一批已校验的行并清空chunk；整批在一个事务内，失败时整批记为失败
+     */
+    private void writeChunk(Long userId, List<OrderCreateDTO> chunk, List<Long> lines, Progress progress) {
+        try {
+            // 单号在写入事务之前分配，号段租用不会在持有写入连接时再占一个连接
+            List<String> trackingNumbers = new ArrayList<>(chunk.size());
+            for (OrderCreateDTO dto : chunk) {
+                trackingNumbers.add(trackingNumberAllocator.allocate(dto.getCourierCompany()));
+            }
+            transactionTemplate.executeWithoutResult(status -> insertOrders(userId, chunk, trackingNumbers));
+            progress.successCount += chunk.size();
+        } catch (RuntimeException e) {
+            log.warn("订单导入 {} 第{}-{}行写入失败: {}", progress.importId, lines.get(0), lines.get(lines.size() - 1),
+                    e.getMessage());
+            String message = "写入失败: " + StrUtil.maxLength(StrUtil.nullToEmpty(e.getMessage()), 200);
+            for (Long line : lines) {
+                progress.fail(line, message);
+            }
+        }
+        chunk.clear();
+        lines.clear();
+    }
+
+    private void insertOrders(Long userId, List<OrderCreateDTO> chunk, List<String> trackingNumbers) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Order> orders = new ArrayList<>(chunk.size());
+        List<LogisticsNode> nodes = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Order order = OrderConverter.toEntity(chunk.get(i));
+            order.setUserId(userId);
+            order.setStatus("pending");
+            order.setTrackingNumber(trackingNumbers.get(i));
+            // 当前节点的位置、状态、时间随订单行一起写入，节点ID在节点入库后回填
+            LogisticsNode node = OrderServiceImpl.initialNode(order, now);
+            OrderConverter.applyCurrentNode(order, node);
+            orders.add(order);
+            nodes.add(node);
+        }
+
+        orderMapper.insertBatch(orders);
+        for (int i = 0; i < orders.size(); i++) {
+            nodes.get(i).setOrderId(orders.get(i).getId());
+        }
+        logisticsNodeMapper.insertBatch(nodes);
+        orderMapper.updateCurrentNodeIds(nodes);
+        for (int i = 0; i < orders.size(); i++) {
+            orders.get(i).setCurrentNodeId(nodes.get(i).getId());
+        }
+
+        orderSearchIndex.indexAll(orders);
+        orderStatusCounter.increment(userId, "pending", orders.size());
+        List<OrderVO> orderVOs = orders.stream().map(OrderConverter::toVO).collect(Collectors.toList());
+        outboxWriter.appendOrderEvents(OutboxWriter.ORDER_CREATED, orderVOs, OrderVO::getId);
+        outboxWriter.appendNodesAdded(nodes);
+    }
+
+    private String validate(OrderCreateDTO dto) {
+        if (dto == null) {
+            return "订单不能为空";
+        }
+        Set<ConstraintViolation<OrderCreateDTO>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String resolveFormat(String format) {
+        String value = StrUtil.nullToEmpty(format).toLowerCase();
+        if (value.contains("csv")) {
+            return FORMAT_CSV;
+        }
+        // ndjson、jsonl及application/json都按每行一个对象读取
+        if (value.contains("json")) {
+            return FORMAT_NDJSON;
+        }
+        throw new BusinessException(ResultCode.BAD_REQUEST.getCode(), "仅支持CSV(text/csv)或NDJSON(application/x-ndjson)格式");
+    }
+
+    private static String cacheKey(Long userId, String importId) {
+        return userId + ":" + importId;
+    }
+
+    private static void column(BiConsumer<OrderCreateDTO, String> setter, String... names) {
+        for (String name : names) {
+            CSV_COLUMNS.put(name.toLowerCase(), setter);
+        }
+    }
+
+    /**
+     * 导入过程中的计数，只在导入线程上读写，按批复制为快照发布
+     */
+    private class Progress {
+
+        private final String importId;
+
+        private long processed;
+
+        private long successCount;
+
+        private long failureCount;
+
+        private final List<OrderImportVO.RowError> errors = new ArrayList<>();
+
+        private String abortReason;
+
+        private Progress(String importId) {
+            this.importId = importId;
+        }
+
+        private void fail(long line, String message) {
+            failureCount++;
+            if (errors.size() < maxErrors) {
+                OrderImportVO.RowError error = new OrderImportVO.RowError();
+                error.setLine(line);
+                error.setMessage(message);
+                errors.add(error);
+            }
+        }
+
+        private OrderImportVO snapshot(boolean finished) {
+            OrderImportVO vo = new OrderImportVO();
+            vo.setImportId(importId);
+            vo.setFinished(finished);
+            vo.setProcessed(processed);
+            vo.setSuccessCount(successCount);
+            vo.setFailureCount(failureCount);
+            // 写入失败的批次按行号补记，输出前排序
+            List<OrderImportVO.RowError> sorted = new ArrayList<>(errors);
+            sorted.sort((a, b) -> Long.compare(a.getLine(), b.getLine()));
+            vo.setErrors(sorted);
+            vo.setErrorsTruncated(failureCount > errors.size());
+            vo.setAbortReason(abortReason);
+            return vo;
+        }
+    }
+
+    private static class Row {
+
+        private final long line;
+
+        private final OrderCreateDTO dto;
+
+        // 解析失败的原因，非空时dto为null
+        private final String error;
+
+        private Row(long line, OrderCreateDTO dto, String error) {
+            this.line = line;
+            this.dto = dto;
+            this.error = error;
+        }
+    }
+
+    private interface RowSource extends Closeable {
+
+        /**
+         * 读取下一数据行，输入结束时返回null
+         */
+        Row next() throws IOException;
+    }
+
+    /**
+     * CSV输入，首行为表头，按表头名映射字段，兼容UTF-8 BOM
+     */
+    private static class CsvSource implements RowSource {
+
+        private final CsvParser parser;
+
+        private List<BiConsumer<OrderCreateDTO, String>> setters;
+
+        private CsvSource(InputStream in) {
+            Reader reader = new InputStreamReader(new BOMInputStream(in, StandardCharsets.UTF_8.name()), StandardCharsets.UTF_8);
+            this.parser = new CsvParser(reader, CsvReadConfig.defaultConfig()
+                    .setContainsHeader(true)
+                    .setSkipEmptyRows(true)
+                    .setTrimField(true));
+        }
+
+        @Override
+        public Row next() {
+            CsvRow csvRow = parser.nextRow();
+            if (csvRow == null) {
+                // 只有表头时同样校验表头
+                if (setters == null) {
+                    if (parser.getHeader() == null) {
+                        throw new BusinessException(ResultCode.BAD_REQUEST.getCode(), "CSV内容为空");
+                    }
+                    setters = resolveHeader(parser.getHeader());
+                }
+                return null;
+            }
+            if (setters == null) {
+                setters = resolveHeader(parser.getHeader());
+            }
+            OrderCreateDTO dto = new OrderCreateDTO();
+            List<String> fields = csvRow.getRawList();
+            for (int i = 0; i < fields.size() && i < setters.size(); i++) {
+                BiConsumer<OrderCreateDTO, String> setter = setters.get(i);
+                if (setter != null && StrUtil.isNotEmpty(fields.get(i))) {
+                    setter.accept(dto, fields.get(i));
+                }
+            }
+            // 原始行号从0开始
+            return new Row(csvRow.getOriginalLineNumber() + 1, dto, null);
+        }
+
+        private static List<BiConsumer<OrderCreateDTO, String>> resolveHeader(List<String> header) {
+            List<BiConsumer<OrderCreateDTO, String>> setters = new ArrayList<>(header.size());
+            boolean matched = false;
+            for (String name : header) {
+                BiConsumer<OrderCreateDTO, String> setter = CSV_COLUMNS.get(StrUtil.trim(name).toLowerCase());
+                setters.add(setter);
+                matched |= setter != null;
+            }
+            if (!matched) {
+                throw new BusinessException(ResultCode.BAD_REQUEST.getCode(), "CSV表头无法识别，需为订单字段名或中文列名");
+            }
+            return setters;
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+
+    /**
+     * NDJSON输入，每行一个订单JSON对象，空行跳过
+     */
+    private static class NdjsonSource implements RowSource {
+
+        private final BufferedReader reader;
+
+        private final ObjectReader dtoReader;
+
+        private final int maxLineLength;
+
+        // 复用的行缓冲，最多保留上限加一个字符
+        private final StringBuilder lineBuffer = new StringBuilder();
+
+        private long lineNumber;
+
+        private NdjsonSource(InputStream in, ObjectReader dtoReader, int maxLineLength) {
+            this.reader = new BufferedReader(new InputStreamReader(
+                    new BOMInputStream(in, StandardCharsets.UTF_8.name()), StandardCharsets.UTF_8));
+            this.dtoReader = dtoReader;
+            this.maxLineLength = maxLineLength;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String line;
+            while ((line = readLine()) != null) {
+                lineNumber++;
+                if (line.length() > maxLineLength) {
+                    return new Row(lineNumber, null, "行长度超过上限" + maxLineLength + "字符");
+                }
+                if (StrUtil.isBlank(line)) {
+                    continue;
+                }
+                try {
+                    return new Row(lineNumber, dtoReader.readValue(line), null);
+                } catch (JsonProcessingException e) {
+                    return new Row(lineNumber, null, "JSON格式错误: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+
+        /**
+         * 读取一行(不含换行符)，超过上限的部分边读边丢弃，单行内存占用有界；返回长度超限的行时只保留前上限加一个字符
+         */
+        private String readLine() throws IOException {
+            lineBuffer.setLength(0);
+            boolean truncated = false;
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            while (c != -1 && c != '\n') {
+                if (lineBuffer.length() <= maxLineLength) {
+                    lineBuffer.append((char) c);
+                } else {
+                    truncated = true;
+                }
+                c = reader.read();
+            }
+            int length = lineBuffer.length();
+            if (!truncated && length > 0 && lineBuffer.charAt(length - 1) == '\r') {
+                lineBuffer.setLength(length - 1);
+            }
+            return lineBuffer.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
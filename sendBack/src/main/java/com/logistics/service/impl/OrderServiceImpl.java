@@ -1,30 +1,50 @@
 package com.logistics.service.impl;
 
-import cn.hutool.core.bean.BeanUtil;
-import cn.hutool.core.util.IdUtil;
 import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.logistics.cache.LocalCache;
 import com.logistics.common.BusinessException;
 import com.logistics.common.ResultCode;
+import com.logistics.converter.LogisticsNodeConverter;
+import com.logistics.converter.OrderConverter;
 import com.logistics.dto.OrderCreateDTO;
+import com.logistics.dto.OrderExportQueryDTO;
 import com.logistics.dto.OrderQueryDTO;
 import com.logistics.dto.OrderStatusDTO;
 import com.logistics.entity.LogisticsNode;
 import com.logistics.entity.Order;
 import com.logistics.mapper.LogisticsNodeMapper;
 import com.logistics.mapper.OrderMapper;
+import com.logistics.outbox.OutboxWriter;
+import com.logistics.search.OrderSearchIndex;
+import com.logistics.sequence.TrackingNumberAllocator;
 import com.logistics.service.OrderService;
+import com.logistics.stream.TrackingEventHub;
+import com.logistics.util.PageCursor;
+import com.logistics.util.TrackingNumberUtil;
 import com.logistics.vo.LogisticsNodeVO;
+import com.logistics.vo.OrderImportVO;
+import com.logistics.vo.OrderSummaryVO;
 import com.logistics.vo.OrderVO;
 import com.logistics.vo.PageVO;
+import com.logistics.vo.TrackingLookupVO;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,49 +52,74 @@ public class OrderServiceImpl implements OrderService {
 
     private final OrderMapper orderMapper;
     private final LogisticsNodeMapper logisticsNodeMapper;
-
-    private static final Map<String, String> STATUS_TEXT_MAP = new HashMap<>();
-
-    static {
-        STATUS_TEXT_MAP.put("pending", "待取件");
-        STATUS_TEXT_MAP.put("in_transit", "运输中");
-        STATUS_TEXT_MAP.put("delivered", "已签收");
-        STATUS_TEXT_MAP.put("exception", "异常");
-    }
-
-    public OrderServiceImpl(OrderMapper orderMapper, LogisticsNodeMapper logisticsNodeMapper) {
+    private final LogisticsNodeReader logisticsNodeReader;
+    private final LocalCache<String, OrderVO> trackingCache;
+    private final OrderSearchIndex orderSearchIndex;
+    private final TrackingEventHub trackingEventHub;
+    private final TrackingNumberAllocator trackingNumberAllocator;
+    private final OrderStatusCounter orderStatusCounter;
+    private final OutboxWriter outboxWriter;
+    private final OrderImporter orderImporter;
+    private final OrderExporter orderExporter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${tracking.batch.max-size:100}")
+    private int trackingBatchMaxSize;
+
+    public OrderServiceImpl(OrderMapper orderMapper, LogisticsNodeMapper logisticsNodeMapper,
+                            LogisticsNodeReader logisticsNodeReader, LocalCache<String, OrderVO> trackingCache, OrderSearchIndex orderSearchIndex,
+                            TrackingEventHub trackingEventHub, TrackingNumberAllocator trackingNumberAllocator,
+                            OrderStatusCounter orderStatusCounter, OutboxWriter outboxWriter,
+                            OrderImporter orderImporter, OrderExporter orderExporter,
+                            TransactionTemplate transactionTemplate) {
         this.orderMapper = orderMapper;
         this.logisticsNodeMapper = logisticsNodeMapper;
+        this.logisticsNodeReader = logisticsNodeReader;
+        this.trackingCache = trackingCache;
+        this.orderSearchIndex = orderSearchIndex;
+        this.trackingEventHub = trackingEventHub;
+        this.trackingNumberAllocator = trackingNumberAllocator;
+        this.orderStatusCounter = orderStatusCounter;
+        this.outboxWriter = outboxWriter;
+        this.orderImporter = orderImporter;
+        this.orderExporter = orderExporter;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Override
-    @Transactional
     public OrderVO createOrder(Long userId, OrderCreateDTO orderCreateDTO) {
-        Order order = new Order();
-        BeanUtil.copyProperties(orderCreateDTO, order);
+        // 生成快递单号；号段耗尽时需在独立事务中租用新号段，放在下单事务之前，避免持有连接时再占一个连接
+        String trackingNumber = trackingNumberAllocator.allocate(orderCreateDTO.getCourierCompany());
+        return transactionTemplate.execute(status -> insertOrder(userId, orderCreateDTO, trackingNumber));
+    }
+
+    private OrderVO insertOrder(Long userId, OrderCreateDTO orderCreateDTO, String trackingNumber) {
+        Order order = OrderConverter.toEntity(orderCreateDTO);
         order.setUserId(userId);
         order.setStatus("pending");
-        // 生成快递单号
-        order.setTrackingNumber(generateTrackingNumber(orderCreateDTO.getCourierCompany()));
+        order.setTrackingNumber(trackingNumber);
 
         orderMapper.insert(order);
+        orderSearchIndex.index(order);
+        orderStatusCounter.increment(userId, order.getStatus());
 
         // 创建初始物流节点
-        LogisticsNode node = new LogisticsNode();
-        node.setOrderId(order.getId());
-        node.setTrackingNumber(order.getTrackingNumber());
-        node.setTime(LocalDateTime.now());
-        node.setLocation(extractCity(orderCreateDTO.getSenderAddress()));
-        node.setStatus("待取件");
-        node.setDescription("快递员已接单，等待上门取件");
-        node.setIsActive(1);
+        LogisticsNode node = initialNode(order, LocalDateTime.now());
         logisticsNodeMapper.insert(node);
+        orderMapper.updateCurrentNode(node);
+        OrderConverter.applyCurrentNode(order, node);
+
+        OrderVO orderVO = OrderConverter.toVO(order);
+        outboxWriter.appendOrderEvent(order.getId(), OutboxWriter.ORDER_CREATED, orderVO);
+        outboxWriter.appendNodesAdded(List.of(node));
 
-        return convertToOrderVO(order);
+        return orderVO;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PageVO<OrderVO> getOrderList(Long userId, OrderQueryDTO queryDTO) {
+        boolean cursorMode = queryDTO.getCursor() != null;
         LambdaQueryWrapper<Order> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(Order::getUserId, userId);
 
@@ -83,26 +128,67 @@ public class OrderServiceImpl implements OrderService {
             queryWrapper.eq(Order::getStatus, queryDTO.getStatus());
         }
 
-        // 关键词搜索
-        if (StrUtil.isNotBlank(queryDTO.getKeyword())) {
+        // 关键词搜索：n-gram索引子查询缩小范围，再做精确匹配
+        String keyword = queryDTO.getKeyword();
+        if (StrUtil.isNotBlank(keyword)) {
+            orderSearchIndex.applyFilter(queryWrapper, userId, keyword);
             queryWrapper.and(w -> w
-                    .like(Order::getTrackingNumber, queryDTO.getKeyword())
-                    .or().like(Order::getReceiverName, queryDTO.getKeyword())
-                    .or().like(Order::getReceiverPhone, queryDTO.getKeyword())
-                    .or().like(Order::getSenderName, queryDTO.getKeyword())
+                    .like(Order::getTrackingNumber, keyword)
+                    .or().like(Order::getReceiverName, keyword)
+                    .or().like(Order::getReceiverPhone, keyword)
+                    .or().like(Order::getSenderName, keyword)
             );
         }
 
-        queryWrapper.orderByDesc(Order::getCreatedAt);
+        if (cursorMode) {
+            return getOrderListByCursor(queryWrapper, queryDTO);
+        }
+
+        queryWrapper.orderByDesc(Order::getCreatedAt)
+                .orderByDesc(Order::getId);
 
-        Page<Order> page = new Page<>(queryDTO.getPage(), queryDTO.getPageSize());
+        Page<Order> page = new Page<>(queryDTO.getPage(), queryDTO.getPageSize(),
+                !Boolean.FALSE.equals(queryDTO.getWithTotal()));
         Page<Order> result = orderMapper.selectPage(page, queryWrapper);
 
         List<OrderVO> orderVOList = result.getRecords().stream()
-                .map(this::convertToOrderVO)
+                .map(OrderConverter::toVO)
+                .collect(Collectors.toList());
+
+        Long total = page.searchCount() ? result.getTotal() : null;
+        return PageVO.of(orderVOList, total, queryDTO.getPage(), queryDTO.getPageSize());
+    }
+
+    /**
+     * 游标分页：按(created_at, id)倒序定位，不做OFFSET和COUNT，多取一条判断是否有下一页
+     */
+    private PageVO<OrderVO> getOrderListByCursor(LambdaQueryWrapper<Order> queryWrapper, OrderQueryDTO queryDTO) {
+        int pageSize = queryDTO.getPageSize();
+        if (StrUtil.isNotBlank(queryDTO.getCursor())) {
+            PageCursor cursor = PageCursor.decode(queryDTO.getCursor());
+            queryWrapper.and(w -> w
+                    .lt(Order::getCreatedAt, cursor.getCreatedAt())
+                    .or(o -> o.eq(Order::getCreatedAt, cursor.getCreatedAt()).lt(Order::getId, cursor.getId()))
+            );
+        }
+        queryWrapper.orderByDesc(Order::getCreatedAt)
+                .orderByDesc(Order::getId)
+                .last("LIMIT " + (pageSize + 1));
+
+        List<Order> orders = orderMapper.selectList(queryWrapper);
+
+        String nextCursor = null;
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            Order last = orders.get(pageSize - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        List<OrderVO> orderVOList = orders.stream()
+                .map(OrderConverter::toVO)
                 .collect(Collectors.toList());
 
-        return PageVO.of(orderVOList, result.getTotal(), queryDTO.getPage(), queryDTO.getPageSize());
+        return PageVO.ofCursor(orderVOList, pageSize, nextCursor);
     }
 
     @Override
@@ -117,103 +203,225 @@ public class OrderServiceImpl implements OrderService {
             throw new BusinessException(ResultCode.ORDER_NOT_FOUND);
         }
 
-        OrderVO orderVO = convertToOrderVO(order);
+        OrderVO orderVO = OrderConverter.toVO(order);
         // 加载物流信息
-        orderVO.setLogisticsNodes(getLogisticsNodes(order.getId()));
+        orderVO.setLogisticsNodes(getLogisticsNodes(order));
 
         return orderVO;
     }
 
+    /**
+     * 统计读主库：结果回填本地缓存，且计数行按主键单行读取，走从库没有收益
+     */
+    @Override
+    public OrderSummaryVO getOrderSummary(Long userId) {
+        return orderStatusCounter.getSummary(userId);
+    }
+
     @Override
     @Transactional
     public OrderVO updateOrderStatus(Long id, Long userId, OrderStatusDTO statusDTO) {
+        // 锁住订单行，并发改同一订单时计数按实际的前后状态增减
         Order order = orderMapper.selectOne(
                 new LambdaQueryWrapper<Order>()
                         .eq(Order::getId, id)
                         .eq(Order::getUserId, userId)
+                        .last("FOR UPDATE")
         );
 
         if (order == null) {
             throw new BusinessException(ResultCode.ORDER_NOT_FOUND);
         }
 
+        String oldStatus = order.getStatus();
         order.setStatus(statusDTO.getStatus());
         orderMapper.updateById(order);
+        orderStatusCounter.move(userId, oldStatus, order.getStatus());
+        trackingCache.invalidateAfterCommit(order.getTrackingNumber());
+        outboxWriter.appendOrderEvent(order.getId(), OutboxWriter.ORDER_STATUS_CHANGED, Map.of(
+                "orderId", order.getId(),
+                "userId", userId,
+                "trackingNumber", order.getTrackingNumber(),
+                "oldStatus", oldStatus,
+                "newStatus", order.getStatus()));
+
+        OrderVO orderVO = OrderConverter.toVO(order);
+        trackingEventHub.publishStatusAfterCommit(orderVO);
 
-        return convertToOrderVO(order);
+        return orderVO;
     }
 
     @Override
+    @Transactional
     public void deleteOrder(Long id, Long userId) {
-        int rows = orderMapper.delete(
+        Order order = orderMapper.selectOne(
                 new LambdaQueryWrapper<Order>()
                         .eq(Order::getId, id)
                         .eq(Order::getUserId, userId)
+                        .last("FOR UPDATE")
         );
 
-        if (rows == 0) {
+        if (order == null || orderMapper.deleteById(order.getId()) == 0) {
             throw new BusinessException(ResultCode.ORDER_NOT_FOUND);
         }
+        orderStatusCounter.decrement(userId, order.getStatus());
+
+        orderSearchIndex.remove(order.getId());
+        trackingCache.invalidateAfterCommit(order.getTrackingNumber());
+        outboxWriter.appendOrderEvent(order.getId(), OutboxWriter.ORDER_DELETED, Map.of(
+                "orderId", order.getId(),
+                "userId", userId,
+                "trackingNumber", order.getTrackingNumber(),
+                "status", order.getStatus()));
     }
 
     @Override
     public OrderVO getOrderByTrackingNumber(String trackingNumber) {
+        // 格式或校验位不对的单号不查库
+        if (!TrackingNumberUtil.isWellFormed(trackingNumber)) {
+            throw new BusinessException(ResultCode.TRACKING_NUMBER_INVALID);
+        }
+        // 缓存的视图在各请求间共享，不可修改
+        OrderVO orderVO = trackingCache.getOrLoad(trackingNumber, () -> loadTrackingView(trackingNumber));
+
+        if (orderVO == null) {
+            throw new BusinessException(ResultCode.ORDER_NOT_FOUND);
+        }
+
+        return orderVO;
+    }
+
+    @Override
+    public Map<String, TrackingLookupVO> getOrdersByTrackingNumbers(List<String> trackingNumbers) {
+        // 去重并保持请求顺序
+        Set<String> keys = new LinkedHashSet<>();
+        for (String trackingNumber : trackingNumbers) {
+            if (StrUtil.isNotBlank(trackingNumber)) {
+                keys.add(trackingNumber.trim());
+            }
+        }
+        if (keys.isEmpty()) {
+            throw new BusinessException(ResultCode.BAD_REQUEST.getCode(), "快递单号不能为空");
+        }
+        if (keys.size() > trackingBatchMaxSize) {
+            throw new BusinessException(ResultCode.BAD_REQUEST.getCode(), "单次最多查询" + trackingBatchMaxSize + "个单号");
+        }
+
+        Set<String> wellFormed = new LinkedHashSet<>();
+        for (String key : keys) {
+            if (TrackingNumberUtil.isWellFormed(key)) {
+                wellFormed.add(key);
+            }
+        }
+        Map<String, OrderVO> views = wellFormed.isEmpty()
+                ? Collections.emptyMap()
+                : trackingCache.getAllOrLoad(wellFormed, this::loadTrackingViews);
+
+        Map<String, TrackingLookupVO> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            OrderVO orderVO = views.get(key);
+            if (orderVO != null) {
+                result.put(key, TrackingLookupVO.found(orderVO));
+            } else {
+                result.put(key, TrackingLookupVO.notFound(wellFormed.contains(key)
+                        ? ResultCode.ORDER_NOT_FOUND.getMessage()
+                        : ResultCode.TRACKING_NUMBER_INVALID.getMessage()));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public OrderImportVO importOrders(Long userId, String importId, String format, InputStream content) {
+        // 不在外层开事务，由导入器按批提交
+        return orderImporter.importOrders(userId, importId, format, content);
+    }
+
+    @Override
+    public OrderImportVO getImportProgress(Long userId, String importId) {
+        return orderImporter.getProgress(userId, importId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportOrders(Long userId, OrderExportQueryDTO queryDTO, OutputStream out) {
+        // 游标需在事务内遍历，只读事务在配置了从库时走从库
+        return orderExporter.export(userId, queryDTO, out);
+    }
+
+    /**
+     * 批量加载追踪视图：一次IN查订单、一次IN查全部节点，在内存中按订单分组
+     */
+    private Map<String, OrderVO> loadTrackingViews(Set<String> trackingNumbers) {
+        List<Order> orders = orderMapper.selectList(
+                new LambdaQueryWrapper<Order>()
+                        .in(Order::getTrackingNumber, trackingNumbers)
+        );
+        if (orders.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Long, List<LogisticsNode>> nodesByOrder = logisticsNodeReader.listByOrders(orders);
+
+        // 单号列的排序规则不区分大小写，按请求中的写法回填结果，与单个查询一致
+        Map<String, OrderVO> byTrackingNumber = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Order order : orders) {
+            OrderVO orderVO = OrderConverter.toVO(order);
+            orderVO.setLogisticsNodes(toNodeVOs(order, nodesByOrder.getOrDefault(order.getId(), Collections.emptyList())));
+            byTrackingNumber.put(order.getTrackingNumber(), orderVO);
+        }
+        Map<String, OrderVO> views = new HashMap<>();
+        for (String trackingNumber : trackingNumbers) {
+            OrderVO orderVO = byTrackingNumber.get(trackingNumber);
+            if (orderVO != null) {
+                views.put(trackingNumber, orderVO);
+            }
+        }
+        return views;
+    }
+
+    private OrderVO loadTrackingView(String trackingNumber) {
         Order order = orderMapper.selectOne(
                 new LambdaQueryWrapper<Order>()
                         .eq(Order::getTrackingNumber, trackingNumber)
         );
 
         if (order == null) {
-            throw new BusinessException(ResultCode.ORDER_NOT_FOUND);
+            return null;
         }
 
-        OrderVO orderVO = convertToOrderVO(order);
-        orderVO.setLogisticsNodes(getLogisticsNodes(order.getId()));
+        OrderVO orderVO = OrderConverter.toVO(order);
+        orderVO.setLogisticsNodes(getLogisticsNodes(order));
 
         return orderVO;
     }
 
-    private List<LogisticsNodeVO> getLogisticsNodes(Long orderId) {
-        List<LogisticsNode> nodes = logisticsNodeMapper.selectList(
-                new LambdaQueryWrapper<LogisticsNode>()
-                        .eq(LogisticsNode::getOrderId, orderId)
-                        .orderByDesc(LogisticsNode::getTime)
-        );
-
-        return nodes.stream().map(node -> {
-            LogisticsNodeVO vo = new LogisticsNodeVO();
-            BeanUtil.copyProperties(node, vo);
-            vo.setIsActive(node.getIsActive() == 1);
-            return vo;
-        }).collect(Collectors.toList());
+    private List<LogisticsNodeVO> getLogisticsNodes(Order order) {
+        return toNodeVOs(order, logisticsNodeReader.listByOrder(order));
     }
 
-    private OrderVO convertToOrderVO(Order order) {
-        OrderVO vo = new OrderVO();
-        BeanUtil.copyProperties(order, vo);
-        vo.setStatusText(STATUS_TEXT_MAP.getOrDefault(order.getStatus(), "未知"));
-        return vo;
+    private List<LogisticsNodeVO> toNodeVOs(Order order, List<LogisticsNode> nodes) {
+        return nodes.stream()
+                .map(node -> LogisticsNodeConverter.toVO(node, order.getCurrentNodeId()))
+                .collect(Collectors.toList());
     }
 
-    private String generateTrackingNumber(String courierCompany) {
-        String prefix;
-        if (courierCompany.contains("顺丰")) {
-            prefix = "SF";
-        } else if (courierCompany.contains("圆通")) {
-            prefix = "YT";
-        } else if (courierCompany.contains("中通")) {
-            prefix = "ZTO";
-        } else if (courierCompany.contains("韵达")) {
-            prefix = "YD";
-        } else if (courierCompany.contains("申通")) {
-            prefix = "STO";
-        } else {
-            prefix = "EX";
-        }
-        return prefix + IdUtil.getSnowflakeNextIdStr().substring(0, 12);
+    /**
+     * 新订单的初始物流节点，位置取寄件地址所在城市
+     */
+    static LogisticsNode initialNode(Order order, LocalDateTime time) {
+        LogisticsNode node = new LogisticsNode();
+        node.setOrderId(order.getId());
+        node.setTrackingNumber(order.getTrackingNumber());
+        node.setTime(time);
+        node.setLocation(extractCity(order.getSenderAddress()));
+        node.setStatus("待取件");
+        node.setDescription("快递员已接单，等待上门取件");
+        node.setIsActive(1);
+        return node;
     }
 
-    private String extractCity(String address) {
+    static String extractCity(String address) {
         // 简单提取城市名
         if (address.contains("市")) {
             int idx = address.indexOf("市");
@@ -0,0 +1,176 @@
+package com.logistics.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.logistics.cache.LocalCache;
+import com.logistics.entity.OrderStatusCount;
+import com.logistics.entity.User;
+import com.logistics.mapper.OrderStatusCountMapper;
+import com.logistics.mapper.UserMapper;
+import com.logistics.vo.OrderSummaryVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 用户订单状态计数：随下单、改状态、删除在同一事务内增减，读取走本地缓存，定时与订单表对账修正偏差
+ */
+@Slf4j
+@Component
+public class OrderStatusCounter {
+
+    private final OrderStatusCountMapper countMapper;
+    private final UserMapper userMapper;
+    private final LocalCache<Long, OrderSummaryVO> orderSummaryCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${order.summary.reconcile.enabled:true}")
+    private boolean reconcileEnabled;
+
+    @Value("${order.summary.reconcile.batch-size:200}")
+    private int reconcileBatchSize;
+
+    public OrderStatusCounter(OrderStatusCountMapper countMapper, UserMapper userMapper,
+                              LocalCache<Long, OrderSummaryVO> orderSummaryCache,
+                              TransactionTemplate transactionTemplate) {
+        this.countMapper = countMapper;
+        this.userMapper = userMapper;
+        this.orderSummaryCache = orderSummaryCache;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void increment(Long userId, String status) {
+        countMapper.increment(userId, status, 1);
+        orderSummaryCache.invalidateAfterCommit(userId);
+    }
+
+    /**
+     * 同一用户同一状态一次增加多单，用于批量导入
+     */
+    public void increment(Long userId, String status, long count) {
+        if (count == 0) {
+            return;
+        }
+        countMapper.increment(userId, status, count);
+        orderSummaryCache.invalidateAfterCommit(userId);
+    }
+
+    public void decrement(Long userId, String status) {
+        countMapper.increment(userId, status, -1);
+        orderSummaryCache.invalidateAfterCommit(userId);
+    }
+
+    /**
+     * 订单从一个状态改为另一个状态
+     */
+    public void move(Long userId, String from, String to) {
+        if (from.equals(to)) {
+            return;
+        }
+        // 两行按状态名固定顺序加锁，同一用户并发改状态时不会互相死锁
+        if (from.compareTo(to) < 0) {
+            countMapper.increment(userId, from, -1);
+            countMapper.increment(userId, to, 1);
+        } else {
+            countMapper.increment(userId, to, 1);
+            countMapper.increment(userId, from, -1);
+        }
+        orderSummaryCache.invalidateAfterCommit(userId);
+    }
+
+    public OrderSummaryVO getSummary(Long userId) {
+        return orderSummaryCache.getOrLoad(userId, () -> toSummary(countMapper.selectByUserId(userId)));
+    }
+
+    @Scheduled(fixedDelayString = "${order.summary.reconcile.interval:21600000}",
+            initialDelayString = "${order.summary.reconcile.interval:21600000}")
+    public void scheduledReconcile() {
+        if (reconcileEnabled) {
+            reconcile();
+        }
+    }
+
+    /**
+     * 按用户ID分批对账，返回修正的计数行数
+     */
+    public int reconcile() {
+        long afterId = 0L;
+        int repaired = 0;
+        while (true) {
+            List<Long> userIds = userMapper.selectList(
+                    new LambdaQueryWrapper<User>()
+                            .select(User::getId)
+                            .gt(User::getId, afterId)
+                            .orderByAsc(User::getId)
+                            .last("LIMIT " + reconcileBatchSize)
+            ).stream().map(User::getId).collect(Collectors.toList());
+            if (userIds.isEmpty()) {
+                break;
+            }
+            repaired += transactionTemplate.execute(status -> reconcileBatch(userIds));
+            afterId = userIds.get(userIds.size() - 1);
+        }
+        if (repaired > 0) {
+            log.warn("订单状态计数对账修正 {} 行", repaired);
+        }
+        return repaired;
+    }
+
+    private int reconcileBatch(List<Long> userIds) {
+        // 先锁计数行再统计订单：锁等待期间提交的写入会被统计到，之后的写入在计数行上排队并在对账结果上继续增减
+        Map<Long, Map<String, Long>> stored = group(countMapper.selectByUserIdsForUpdate(userIds));
+        Map<Long, Map<String, Long>> actual = group(countMapper.countOrders(userIds));
+
+        int repaired = 0;
+        for (Long userId : userIds) {
+            Map<String, Long> storedCounts = stored.getOrDefault(userId, Map.of());
+            Map<String, Long> actualCounts = actual.getOrDefault(userId, Map.of());
+            Set<String> statuses = new HashSet<>(storedCounts.keySet());
+            statuses.addAll(actualCounts.keySet());
+            boolean changed = false;
+            for (String status : statuses) {
+                long expected = actualCounts.getOrDefault(status, 0L);
+                if (expected != storedCounts.getOrDefault(status, 0L)) {
+                    countMapper.upsert(userId, status, expected);
+                    repaired++;
+                    changed = true;
+                }
+            }
+            if (changed) {
+                orderSummaryCache.invalidateAfterCommit(userId);
+            }
+        }
+        return repaired;
+    }
+
+    private static Map<Long, Map<String, Long>> group(List<OrderStatusCount> rows) {
+        Map<Long, Map<String, Long>> grouped = new HashMap<>();
+        for (OrderStatusCount row : rows) {
+            grouped.computeIfAbsent(row.getUserId(), id -> new HashMap<>()).put(row.getStatus(), row.getOrderCount());
+        }
+        return grouped;
+    }
+
+    private static OrderSummaryVO toSummary(List<OrderStatusCount> rows) {
+        Map<String, Long> counts = new HashMap<>();
+        for (OrderStatusCount row : rows) {
+            // 对账前可能短暂为负，展示时按0处理
+            counts.put(row.getStatus(), Math.max(0L, row.getOrderCount()));
+        }
+        OrderSummaryVO vo = new OrderSummaryVO();
+        vo.setPending(counts.getOrDefault("pending", 0L));
+        vo.setInTransit(counts.getOrDefault("in_transit", 0L));
+        vo.setDelivered(counts.getOrDefault("delivered", 0L));
+        vo.setException(counts.getOrDefault("exception", 0L));
+        vo.setTotal(vo.getPending() + vo.getInTransit() + vo.getDelivered() + vo.getException());
+        return vo;
+    }
+}
@@ -1,32 +1,40 @@
 package com.logistics.service.impl;
 
-import cn.hutool.core.bean.BeanUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.logistics.cache.LocalCache;
 import com.logistics.common.BusinessException;
 import com.logistics.common.ResultCode;
+import com.logistics.converter.UserConverter;
 import com.logistics.dto.LoginDTO;
 import com.logistics.dto.RegisterDTO;
 import com.logistics.dto.UserUpdateDTO;
 import com.logistics.entity.User;
 import com.logistics.mapper.UserMapper;
+import com.logistics.security.PasswordHasher;
 import com.logistics.service.UserService;
 import com.logistics.util.JwtUtil;
 import com.logistics.vo.LoginVO;
 import com.logistics.vo.UserVO;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+@Slf4j
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserMapper userMapper;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
+    private final LocalCache<Long, UserVO> userCache;
 
-    public UserServiceImpl(UserMapper userMapper, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public UserServiceImpl(UserMapper userMapper, PasswordHasher passwordHasher, JwtUtil jwtUtil,
+                           LocalCache<Long, UserVO> userCache) {
         this.userMapper = userMapper;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.jwtUtil = jwtUtil;
+        this.userCache = userCache;
     }
 
     @Override
@@ -41,17 +49,22 @@ public class UserServiceImpl implements UserService {
         }
 
         // 验证密码
-        if (!passwordEncoder.matches(loginDTO.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(loginDTO.getPassword(), user.getPassword())) {
             throw new BusinessException(ResultCode.USER_PASSWORD_ERROR);
         }
 
+        // 哈希成本与配置不一致时，用本次登录的明文在后台重新哈希
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            rehashPassword(user.getId(), user.getPassword(), loginDTO.getPassword());
+        }
+
         // 生成Token
         String token = jwtUtil.generateToken(user.getId(), user.getPhone());
 
         // 构建返回结果
         LoginVO loginVO = new LoginVO();
         loginVO.setToken(token);
-        loginVO.setUser(convertToUserVO(user));
+        loginVO.setUser(UserConverter.toVO(user));
 
         return loginVO;
     }
@@ -71,24 +84,27 @@ public class UserServiceImpl implements UserService {
         User user = new User();
         user.setUsername(registerDTO.getUsername());
         user.setPhone(registerDTO.getPhone());
-        user.setPassword(passwordEncoder.encode(registerDTO.getPassword()));
+        user.setPassword(passwordHasher.encode(registerDTO.getPassword()));
         user.setAvatar("https://api.dicebear.com/7.x/avataaars/svg?seed=" + registerDTO.getPhone());
 
         userMapper.insert(user);
 
-        return convertToUserVO(user);
+        return UserConverter.toVO(user);
     }
 
     @Override
     public UserVO getUserInfo(Long userId) {
-        User user = userMapper.selectById(userId);
-        if (user == null) {
-            throw new BusinessException(ResultCode.USER_NOT_FOUND);
-        }
-        return convertToUserVO(user);
+        return userCache.getOrLoad(userId, () -> {
+            User user = userMapper.selectById(userId);
+            if (user == null) {
+                throw new BusinessException(ResultCode.USER_NOT_FOUND);
+            }
+            return UserConverter.toVO(user);
+        });
     }
 
     @Override
+    @Transactional
     public UserVO updateUserInfo(Long userId, UserUpdateDTO userUpdateDTO) {
         User user = userMapper.selectById(userId);
         if (user == null) {
@@ -104,13 +120,24 @@ public class UserServiceImpl implements UserService {
         }
 
         userMapper.updateById(user);
+        userCache.invalidateAfterCommit(userId);
 
-        return convertToUserVO(user);
+        return UserConverter.toVO(user);
     }
 
-    private UserVO convertToUserVO(User user) {
-        UserVO userVO = new UserVO();
-        BeanUtil.copyProperties(user, userVO);
-        return userVO;
+    /**
+     * 异步重新哈希并回写，仅在密码未被修改时覆盖；线程池繁忙或失败时跳过，下次登录再试
+     */
+    private void rehashPassword(Long userId, String oldHash, String rawPassword) {
+        passwordHasher.encodeAsync(rawPassword)
+                .thenAccept(newHash -> userMapper.update(null,
+                        new LambdaUpdateWrapper<User>()
+                                .eq(User::getId, userId)
+                                .eq(User::getPassword, oldHash)
+                                .set(User::getPassword, newHash)))
+                .exceptionally(e -> {
+                    log.debug("用户 {} 密码重新哈希跳过: {}", userId, e.getMessage());
+                    return null;
+                });
     }
 }
@@ -0,0 +1,285 @@
+package com.logistics.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.common.BusinessException;
+import com.logistics.common.ResultCode;
+import com.logistics.converter.LogisticsNodeConverter;
+import com.logistics.entity.LogisticsNode;
+import com.logistics.vo.OrderVO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 物流追踪SSE订阅中心，按订单ID登记订阅者，节点写入或状态变更提交后推送，
+ * 并定时发送心跳。SseEmitter基于异步Servlet，空闲订阅不占用请求线程。
+ * 每个订阅者的事件按入队顺序在推送执行器上串行发送，写线程和调度线程只入队不阻塞。
+ */
+@Slf4j
+@Component
+public class TrackingEventHub {
+
+    public static final String EVENT_SNAPSHOT = "snapshot";
+    public static final String EVENT_NODE = "node";
+    public static final String EVENT_STATUS = "status";
+
+    // 单个订阅者积压的事件上限，超过时视为慢客户端断开，由客户端重连取快照
+    private static final int MAX_PENDING_EVENTS = 256;
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    // 按客户端地址计数，接口无需登录，避免单个客户端占满整个实例的订阅名额
+    private final Map<String, Integer> addressCounts = new ConcurrentHashMap<>();
+
+    // 发送交给应用任务执行器，避免慢客户端拖慢写事务线程和调度线程；开启虚拟线程时为虚拟线程执行器
+    private final AsyncTaskExecutor pushExecutor;
+
+    @Value("${tracking.stream.timeout:1800000}")
+    private long timeout;
+
+    @Value("${tracking.stream.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${tracking.stream.max-subscribers-per-address:20}")
+    private int maxPerAddress;
+
+    @Value("${tracking.stream.max-subscribers-per-order:50}")
+    private int maxPerOrder;
+
+    public TrackingEventHub(ObjectMapper objectMapper,
+                            @Qualifier("applicationTaskExecutor") AsyncTaskExecutor pushExecutor) {
+        this.objectMapper = objectMapper;
+        this.pushExecutor = pushExecutor;
+    }
+
+    /**
+     * 订阅订单的追踪事件，先登记再读取快照，连接建立后先推送快照；
+     * 读取快照期间提交的变更排在快照之后推送，不会遗漏(可能与快照重复，客户端按节点ID去重)。
+     * 实例、单个客户端地址、单个订单的订阅数任一超限时在登记前拒绝
+     */
+    public SseEmitter subscribe(Long orderId, String remoteAddress, Supplier<?> snapshotLoader) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new BusinessException(ResultCode.SERVICE_BUSY);
+        }
+        if (!acquireAddress(remoteAddress)) {
+            subscriberCount.decrementAndGet();
+            throw new BusinessException(ResultCode.TOO_MANY_REQUESTS);
+        }
+
+        Subscriber subscriber = new Subscriber(orderId, remoteAddress, new SseEmitter(timeout));
+        boolean[] registered = new boolean[1];
+        subscribers.compute(orderId, (key, set) -> {
+            if (set != null && set.size() >= maxPerOrder) {
+                return set;
+            }
+            Set<Subscriber> emitters = set != null ? set : ConcurrentHashMap.newKeySet();
+            registered[0] = emitters.add(subscriber);
+            return emitters;
+        });
+        if (!registered[0]) {
+            releaseAddress(remoteAddress);
+            subscriberCount.decrementAndGet();
+            throw new BusinessException(ResultCode.TOO_MANY_REQUESTS);
+        }
+
+        Runnable cleanup = () -> unsubscribe(subscriber);
+        subscriber.emitter.onCompletion(cleanup);
+        subscriber.emitter.onTimeout(cleanup);
+        subscriber.emitter.onError(e -> cleanup.run());
+
+        Object snapshot;
+        try {
+            snapshot = snapshotLoader.get();
+        } catch (RuntimeException e) {
+            unsubscribe(subscriber);
+            throw e;
+        }
+        subscriber.start(SseEmitter.event().name(EVENT_SNAPSHOT).data(snapshot, MediaType.APPLICATION_JSON).build());
+        return subscriber.emitter;
+    }
+
+    /**
+     * 当前事务提交后推送新节点，无事务时立即推送
+     */
+    public void publishNodesAfterCommit(List<LogisticsNode> nodes) {
+        afterCommit(() -> nodes.forEach(node ->
+                publish(node.getOrderId(), EVENT_NODE, LogisticsNodeConverter.toVO(node))));
+    }
+
+    /**
+     * 当前事务提交后推送订单状态变更
+     */
+    public void publishStatusAfterCommit(OrderVO orderVO) {
+        afterCommit(() -> publish(orderVO.getId(), EVENT_STATUS, orderVO));
+    }
+
+    /**
+     * 只为空闲的订阅者排入心跳，发送在推送执行器上完成，调度线程不等待慢客户端
+     */
+    @Scheduled(fixedDelayString = "${tracking.stream.heartbeat-interval:20000}")
+    public void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> {
+            if (subscriber.idle()) {
+                subscriber.send(HEARTBEAT);
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void publish(Long orderId, String eventName, Object data) {
+        Set<Subscriber> set = subscribers.get(orderId);
+        if (set == null) {
+            return;
+        }
+        String json;
+        try {
+            // 每个事件只序列化一次，再分发给所有订阅者
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            log.error("序列化推送事件失败", e);
+            return;
+        }
+        Set<DataWithMediaType> event = SseEmitter.event().name(eventName).data(json, MediaType.APPLICATION_JSON).build();
+        set.forEach(subscriber -> subscriber.send(event));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        boolean[] removed = new boolean[1];
+        subscribers.computeIfPresent(subscriber.orderId, (key, set) -> {
+            removed[0] = set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        if (removed[0]) {
+            releaseAddress(subscriber.remoteAddress);
+            subscriberCount.decrementAndGet();
+        }
+        subscriber.pending.clear();
+    }
+
+    private boolean acquireAddress(String remoteAddress) {
+        boolean[] acquired = new boolean[1];
+        addressCounts.compute(remoteAddress, (key, count) -> {
+            int current = count != null ? count : 0;
+            if (current >= maxPerAddress) {
+                return count;
+            }
+            acquired[0] = true;
+            return current + 1;
+        });
+        return acquired[0];
+    }
+
+    private void releaseAddress(String remoteAddress) {
+        addressCounts.computeIfPresent(remoteAddress, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 单个订阅者的发送队列，同一时刻最多一个任务在推送执行器上按序发送；快照入队前只积压不发送
+     */
+    private class Subscriber {
+
+        private final Long orderId;
+
+        private final String remoteAddress;
+
+        private final SseEmitter emitter;
+
+        private final ConcurrentLinkedDeque<Set<DataWithMediaType>> pending = new ConcurrentLinkedDeque<>();
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean started;
+
+        private Subscriber(Long orderId, String remoteAddress, SseEmitter emitter) {
+            this.orderId = orderId;
+            this.remoteAddress = remoteAddress;
+            this.emitter = emitter;
+        }
+
+        private void start(Set<DataWithMediaType> snapshot) {
+            pending.addFirst(snapshot);
+            started = true;
+            schedule();
+        }
+
+        private void send(Set<DataWithMediaType> event) {
+            if (pending.size() >= MAX_PENDING_EVENTS) {
+                log.debug("订单 {} 的订阅者积压过多，断开", orderId);
+                unsubscribe(this);
+                emitter.complete();
+                return;
+            }
+            pending.addLast(event);
+            schedule();
+        }
+
+        private boolean idle() {
+            return started && pending.isEmpty() && !draining.get();
+        }
+
+        private void schedule() {
+            if (started && !pending.isEmpty() && draining.compareAndSet(false, true)) {
+                pushExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> event;
+                while ((event = pending.pollFirst()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(this);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // 释放标记后入队的事件由这里补发
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.logistics.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 已验签的Token主体信息，验签一次后在请求内共享
+ */
+@Getter
+@AllArgsConstructor
+public class JwtPrincipal {
+
+    private final Long userId;
+
+    private final String phone;
+
+    /**
+     * 过期时间戳(毫秒)
+     */
+    private final long expiresAt;
+
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+}
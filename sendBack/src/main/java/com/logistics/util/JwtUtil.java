@@ -1,7 +1,11 @@
 package com.logistics.util;
 
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
@@ -23,11 +27,21 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.cache-size:10000}")
+    private Integer cacheSize;
+
     private SecretKey key;
 
+    private JwtParser parser;
+
+    // 已验签Token缓存，条目随Token的exp一起过期
+    private LRUCache<String, JwtPrincipal> verifiedTokens;
+
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verifiedTokens = CacheUtil.newLRUCache(cacheSize);
     }
 
     public String generateToken(Long userId, String phone) {
@@ -45,21 +59,50 @@ public class JwtUtil {
     }
 
     public Claims parseToken(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * 验证Token并返回主体信息，同一Token只验签一次，无效或已过期时返回null
+     */
+    public JwtPrincipal verifyToken(String token) {
+        long now = System.currentTimeMillis();
+        // 不刷新访问时间，否则Hutool缓存的TTL会变成滑动过期
+        JwtPrincipal principal = verifiedTokens.get(token, false);
+        if (principal != null) {
+            return principal.isExpired(now) ? null : principal;
+        }
+
+        Claims claims;
+        try {
+            claims = parseToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        Date exp = claims.getExpiration();
+        principal = new JwtPrincipal(claims.get("userId", Long.class), claims.getSubject(),
+                exp != null ? exp.getTime() : Long.MAX_VALUE);
+        if (exp != null) {
+            long ttl = principal.getExpiresAt() - now;
+            if (ttl <= 0) {
+                return null;
+            }
+            verifiedTokens.put(token, principal, ttl);
+        } else {
+            verifiedTokens.put(token, principal);
+        }
+        return principal;
     }
 
     public Long getUserId(String token) {
-        Claims claims = parseToken(token);
-        return claims.get("userId", Long.class);
+        JwtPrincipal principal = verifyToken(token);
+        return principal != null ? principal.getUserId() : null;
     }
 
     public String getPhone(String token) {
-        Claims claims = parseToken(token);
-        return claims.getSubject();
+        JwtPrincipal principal = verifyToken(token);
+        return principal != null ? principal.getPhone() : null;
     }
 
     public boolean isTokenExpired(String token) {
@@ -72,11 +115,6 @@ public class JwtUtil {
     }
 
     public boolean validateToken(String token) {
-        try {
-            parseToken(token);
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
-        }
+        return verifyToken(token) != null;
     }
 }
@@ -0,0 +1,37 @@
+package com.logistics.util;
+
+import com.logistics.common.BusinessException;
+import com.logistics.common.ResultCode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 游标分页位置(created_at, id)，对外以Base64编码的不透明字符串传递
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+
+    private final LocalDateTime createdAt;
+
+    private final Long id;
+
+    public String encode() {
+        String raw = createdAt + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = raw.lastIndexOf(',');
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, idx)), Long.valueOf(raw.substring(idx + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException(ResultCode.BAD_REQUEST.getCode(), "分页游标无效");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.logistics.util;
+
+/**
+ * 快递单号格式：快递公司前缀 + 12位序号 + 1位Luhn校验位
+ */
+public final class TrackingNumberUtil {
+
+    public static final long MIN_SEQUENCE = 100_000_000_000L;
+
+    public static final long MAX_SEQUENCE = 999_999_999_999L;
+
+    // 新格式13位数字带校验位；10~12位为旧格式(雪花ID截断)，无校验位
+    private static final int CHECKED_DIGITS = 13;
+
+    private static final int MIN_LEGACY_DIGITS = 10;
+
+    private TrackingNumberUtil() {
+    }
+
+    public static String format(String prefix, long sequence) {
+        String digits = Long.toString(sequence);
+        return new StringBuilder(prefix.length() + digits.length() + 1)
+                .append(prefix)
+                .append(digits)
+                .append((char) ('0' + checkDigit(digits, 0, digits.length())))
+                .toString();
+    }
+
+    /**
+     * 不查库判断单号是否可能存在：格式不符或新格式校验位错误时返回false
+     */
+    public static boolean isWellFormed(String trackingNumber) {
+        if (trackingNumber == null) {
+            return false;
+        }
+        // 逐字符扫描，查询热路径上不用正则：2~3位字母前缀 + 10~13位数字
+        int length = trackingNumber.length();
+        int prefixLength = 0;
+        while (prefixLength < length && prefixLength < 4 && isAsciiLetter(trackingNumber.charAt(prefixLength))) {
+            prefixLength++;
+        }
+        if (prefixLength < 2 || prefixLength > 3) {
+            return false;
+        }
+        int digitCount = length - prefixLength;
+        if (digitCount < MIN_LEGACY_DIGITS || digitCount > CHECKED_DIGITS) {
+            return false;
+        }
+        for (int i = prefixLength; i < length; i++) {
+            char c = trackingNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        if (digitCount != CHECKED_DIGITS) {
+            return true;
+        }
+        return checkDigit(trackingNumber, prefixLength, length - 1) == trackingNumber.charAt(length - 1) - '0';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    /**
+     * [from, to) 区间数字的Luhn校验位，覆盖所有单个数字错误和绝大多数相邻数字颠倒
+     */
+    static int checkDigit(CharSequence digits, int from, int to) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = to - 1; i >= from; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,40 @@
+package com.logistics.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "批量添加物流节点结果")
+public class LogisticsBatchResultVO {
+
+    @Schema(description = "提交条数")
+    private Integer total;
+
+    @Schema(description = "成功条数")
+    private Integer successCount;
+
+    @Schema(description = "失败条数")
+    private Integer failureCount;
+
+    @Schema(description = "逐条结果，顺序与请求一致")
+    private List<Item> items;
+
+    @Data
+    @Schema(description = "单条处理结果")
+    public static class Item {
+
+        @Schema(description = "请求中的下标")
+        private Integer index;
+
+        @Schema(description = "是否成功")
+        private Boolean success;
+
+        @Schema(description = "失败原因")
+        private String message;
+
+        @Schema(description = "写入的物流节点")
+        private LogisticsNodeVO node;
+    }
+}
@@ -0,0 +1,46 @@
+package com.logistics.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "批量导入订单进度与结果")
+public class OrderImportVO {
+
+    @Schema(description = "导入任务ID，可用于查询进度")
+    private String importId;
+
+    @Schema(description = "是否已结束")
+    private Boolean finished;
+
+    @Schema(description = "已处理的数据行数")
+    private Long processed;
+
+    @Schema(description = "成功条数")
+    private Long successCount;
+
+    @Schema(description = "失败条数")
+    private Long failureCount;
+
+    @Schema(description = "失败行明细，按行号升序，超过上限的不再记录")
+    private List<RowError> errors;
+
+    @Schema(description = "失败行明细是否被截断")
+    private Boolean errorsTruncated;
+
+    @Schema(description = "中止原因，正常结束时为空")
+    private String abortReason;
+
+    @Data
+    @Schema(description = "失败行")
+    public static class RowError {
+
+        @Schema(description = "文件中的行号，从1开始(CSV含表头行)")
+        private Long line;
+
+        @Schema(description = "失败原因")
+        private String message;
+    }
+}
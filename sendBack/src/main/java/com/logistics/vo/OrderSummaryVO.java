@@ -0,0 +1,24 @@
+package com.logistics.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "订单状态统计")
+public class OrderSummaryVO {
+
+    @Schema(description = "待取件")
+    private Long pending;
+
+    @Schema(description = "运输中")
+    private Long inTransit;
+
+    @Schema(description = "已签收")
+    private Long delivered;
+
+    @Schema(description = "异常")
+    private Long exception;
+
+    @Schema(description = "全部")
+    private Long total;
+}
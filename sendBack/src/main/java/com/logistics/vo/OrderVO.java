@@ -55,6 +55,9 @@ public class OrderVO {
     @Schema(description = "创建时间")
     private LocalDateTime createdAt;
 
+    @Schema(description = "当前物流节点(列表页展示最新一条物流信息)")
+    private LogisticsNodeVO currentNode;
+
     @Schema(description = "物流信息列表")
     private List<LogisticsNodeVO> logisticsNodes;
 }
@@ -24,13 +24,31 @@ public class PageVO<T> {
     @Schema(description = "总页数")
     private Integer totalPages;
 
+    @Schema(description = "是否还有下一页")
+    private Boolean hasMore;
+
+    @Schema(description = "下一页游标(游标分页时返回)")
+    private String nextCursor;
+
     public static <T> PageVO<T> of(List<T> list, Long total, Integer page, Integer pageSize) {
         PageVO<T> pageVO = new PageVO<>();
         pageVO.setList(list);
         pageVO.setTotal(total);
         pageVO.setPage(page);
         pageVO.setPageSize(pageSize);
-        pageVO.setTotalPages((int) Math.ceil((double) total / pageSize));
+        if (total != null) {
+            pageVO.setTotalPages((int) Math.ceil((double) total / pageSize));
+            pageVO.setHasMore((long) page * pageSize < total);
+        }
+        return pageVO;
+    }
+
+    public static <T> PageVO<T> ofCursor(List<T> list, Integer pageSize, String nextCursor) {
+        PageVO<T> pageVO = new PageVO<>();
+        pageVO.setList(list);
+        pageVO.setPageSize(pageSize);
+        pageVO.setHasMore(nextCursor != null);
+        pageVO.setNextCursor(nextCursor);
         return pageVO;
     }
 }
@@ -0,0 +1,32 @@
+package com.logistics.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "单个快递单号的查询结果")
+public class TrackingLookupVO {
+
+    @Schema(description = "是否找到")
+    private Boolean found;
+
+    @Schema(description = "未找到的原因")
+    private String message;
+
+    @Schema(description = "订单及物流信息")
+    private OrderVO order;
+
+    public static TrackingLookupVO found(OrderVO order) {
+        TrackingLookupVO vo = new TrackingLookupVO();
+        vo.setFound(true);
+        vo.setOrder(order);
+        return vo;
+    }
+
+    public static TrackingLookupVO notFound(String message) {
+        TrackingLookupVO vo = new TrackingLookupVO();
+        vo.setFound(false);
+        vo.setMessage(message);
+        return vo;
+    }
+}
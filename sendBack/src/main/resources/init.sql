@@ -36,16 +36,64 @@ CREATE TABLE t_order (
     receiver_address VARCHAR(255) NOT NULL COMMENT '收件人地址',
     estimated_time VARCHAR(50) DEFAULT NULL COMMENT '预计送达时间',
     user_id BIGINT NOT NULL COMMENT '用户ID',
+    current_node_id BIGINT DEFAULT NULL COMMENT '当前物流节点ID',
+    current_node_location VARCHAR(100) DEFAULT NULL COMMENT '当前物流节点位置',
+    current_node_status VARCHAR(50) DEFAULT NULL COMMENT '当前物流节点状态',
+    current_node_time DATETIME DEFAULT NULL COMMENT '当前物流节点时间',
+    nodes_archived TINYINT DEFAULT 0 COMMENT '物流节点是否已归档(0-否,1-是)',
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     deleted TINYINT DEFAULT 0 COMMENT '是否删除(0-否,1-是)',
     INDEX idx_tracking_number (tracking_number),
     INDEX idx_user_id (user_id),
     INDEX idx_status (status),
-    INDEX idx_created_at (created_at)
+    INDEX idx_created_at (created_at),
+    INDEX idx_user_created_id (user_id, created_at, id),
+    INDEX idx_archive (status, nodes_archived, updated_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
--- 物流节点表
+-- 用户订单状态计数表
+DROP TABLE IF EXISTS t_order_status_count;
+CREATE TABLE t_order_status_count (
+    user_id BIGINT NOT NULL COMMENT '用户ID',
+    status VARCHAR(20) NOT NULL COMMENT '订单状态',
+    order_count BIGINT NOT NULL DEFAULT 0 COMMENT '订单数',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (user_id, status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='用户订单状态计数表';
+
+-- 变更事件表(Outbox)，与业务数据同事务写入，由中继按ID顺序投递
+DROP TABLE IF EXISTS t_outbox_event;
+CREATE TABLE t_outbox_event (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '事件ID',
+    aggregate_type VARCHAR(20) NOT NULL COMMENT '聚合类型: order/logistics_node',
+    aggregate_id BIGINT NOT NULL COMMENT '聚合ID(订单ID)',
+    event_type VARCHAR(50) NOT NULL COMMENT '事件类型',
+    payload JSON NOT NULL COMMENT '事件内容',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    INDEX idx_created_at (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='变更事件表';
+
+-- 变更事件消费位置表
+DROP TABLE IF EXISTS t_outbox_offset;
+CREATE TABLE t_outbox_offset (
+    consumer VARCHAR(100) PRIMARY KEY COMMENT '消费者名称',
+    last_event_id BIGINT NOT NULL COMMENT '已确认的最大事件ID',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='变更事件消费位置表';
+
+-- 缓存失效消息表(多节点缓存失效广播)
+DROP TABLE IF EXISTS t_cache_invalidation;
+CREATE TABLE t_cache_invalidation (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '消息ID',
+    cache_name VARCHAR(50) NOT NULL COMMENT '缓存名称',
+    cache_key VARCHAR(100) NOT NULL COMMENT '缓存key',
+    origin CHAR(32) NOT NULL COMMENT '发出消息的节点ID',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    INDEX idx_created_at (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='缓存失效消息表';
+
+-- 物流节点表(热数据，已签收且超过保留期的订单由归档任务整单搬到归档表)
 DROP TABLE IF EXISTS t_logistics_node;
 CREATE TABLE t_logistics_node (
     id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '节点ID',
@@ -55,13 +103,50 @@ CREATE TABLE t_logistics_node (
     location VARCHAR(100) DEFAULT NULL COMMENT '当前位置',
     status VARCHAR(50) NOT NULL COMMENT '物流状态',
     description VARCHAR(255) DEFAULT NULL COMMENT '物流描述',
-    is_active TINYINT DEFAULT 0 COMMENT '是否当前节点(0-否,1-是)',
+    is_active TINYINT DEFAULT 0 COMMENT '写入时是否成为当前节点(0-否,1-是)，当前节点以t_order.current_node_id为准',
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    INDEX idx_order_id (order_id),
-    INDEX idx_tracking_number (tracking_number),
-    INDEX idx_time (time)
+    INDEX idx_order_time (order_id, time),
+    INDEX idx_tracking_number (tracking_number)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='物流节点表';
 
+-- 物流节点归档表(已签收且超过保留期的订单，每单一行，节点列表压缩存储)
+DROP TABLE IF EXISTS t_logistics_node_archive;
+CREATE TABLE t_logistics_node_archive (
+    order_id BIGINT PRIMARY KEY COMMENT '订单ID',
+    tracking_number VARCHAR(50) NOT NULL COMMENT '快递单号',
+    node_count INT NOT NULL COMMENT '节点数',
+    nodes MEDIUMBLOB NOT NULL COMMENT '节点列表(gzip压缩的JSON)',
+    archived_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '归档时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='物流节点归档表';
+
+-- 快递单号序列表(按快递公司分号段租用)
+DROP TABLE IF EXISTS t_tracking_sequence;
+CREATE TABLE t_tracking_sequence (
+    courier_code VARCHAR(10) PRIMARY KEY COMMENT '快递公司前缀',
+    next_value BIGINT NOT NULL COMMENT '下一个未租出的序号',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='快递单号序列表';
+
+-- 入库检查点表(物流节点预写日志)
+DROP TABLE IF EXISTS t_ingest_checkpoint;
+CREATE TABLE t_ingest_checkpoint (
+    name VARCHAR(100) PRIMARY KEY COMMENT '检查点名称',
+    last_seq BIGINT NOT NULL COMMENT '已入库的最大日志序号',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='入库检查点表';
+
+-- 入库死信表(物流节点预写日志中无法入库的事件)
+DROP TABLE IF EXISTS t_ingest_dead_letter;
+CREATE TABLE t_ingest_dead_letter (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '死信ID',
+    name VARCHAR(100) NOT NULL COMMENT '检查点名称',
+    seq BIGINT NOT NULL COMMENT '日志序号',
+    payload TEXT NOT NULL COMMENT '事件内容(JSON)',
+    reason VARCHAR(500) NOT NULL COMMENT '失败原因',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    UNIQUE KEY uk_name_seq (name, seq)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='入库死信表';
+
 -- 地址表
 DROP TABLE IF EXISTS t_address;
 CREATE TABLE t_address (
@@ -84,6 +169,16 @@ CREATE TABLE t_address (
     INDEX idx_is_default (is_default)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='地址表';
 
+-- 订单搜索索引表(n-gram)
+DROP TABLE IF EXISTS t_order_search_token;
+CREATE TABLE t_order_search_token (
+    user_id BIGINT NOT NULL COMMENT '用户ID',
+    token VARCHAR(8) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL COMMENT 'n-gram词元',
+    order_id BIGINT NOT NULL COMMENT '订单ID',
+    PRIMARY KEY (user_id, token, order_id),
+    INDEX idx_order_id (order_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单搜索索引表';
+
 -- 插入测试数据
 -- 测试用户 (密码: 123456)
 INSERT INTO t_user (username, phone, password, avatar) VALUES
@@ -117,3 +212,24 @@ INSERT INTO t_logistics_node (order_id, tracking_number, time, location, status,
 (2, 'YT9876543210', '2024-01-12 18:30:00', '北京市', '已签收', '快件已签收，签收人：本人', 1),
 -- ZTO2024001234 物流信息
 (3, 'ZTO2024001234', '2024-01-16 11:00:00', '上海市', '待取件', '快递员已接单，等待上门取件', 1);
+
+-- 回填订单当前节点：每单取时间最新的 is_active 节点
+UPDATE t_order o
+JOIN (
+    SELECT n.order_id, MAX(n.id) AS node_id
+    FROM t_logistics_node n
+    JOIN (
+        SELECT order_id, MAX(time) AS max_time FROM t_logistics_node WHERE is_active = 1 GROUP BY order_id
+    ) latest ON latest.order_id = n.order_id AND latest.max_time = n.time
+    WHERE n.is_active = 1
+    GROUP BY n.order_id
+) cur ON cur.order_id = o.id
+JOIN t_logistics_node n ON n.id = cur.node_id
+SET o.current_node_id = n.id,
+    o.current_node_location = n.location,
+    o.current_node_status = n.status,
+    o.current_node_time = n.time;
+
+-- 回填订单状态计数
+INSERT INTO t_order_status_count (user_id, status, order_count)
+SELECT user_id, status, COUNT(*) FROM t_order WHERE deleted = 0 GROUP BY user_id, status;
@@ -0,0 +1,195 @@
+package com.logistics.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.logistics.common.BusinessException;
+import com.logistics.common.ResultCode;
+import com.logistics.dto.LogisticsNodeDTO;
+import com.logistics.entity.LogisticsNode;
+import com.logistics.mapper.IngestCheckpointMapper;
+import com.logistics.mapper.IngestDeadLetterMapper;
+import com.logistics.mapper.OrderMapper;
+import com.logistics.service.impl.LogisticsNodeWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JournaledNodeWriterTest {
+
+    private static final String NAME = "node-journal";
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final LogisticsNodeWriter nodeWriter = mock(LogisticsNodeWriter.class);
+    private final OrderMapper orderMapper = mock(OrderMapper.class);
+    private final IngestCheckpointMapper checkpointMapper = mock(IngestCheckpointMapper.class);
+    private final IngestDeadLetterMapper deadLetterMapper = mock(IngestDeadLetterMapper.class);
+
+    // 已入库事件的状态字段，按写入顺序
+    private final List<String> stored = Collections.synchronizedList(new ArrayList<>());
+
+    private final List<JournaledNodeWriter> writers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(orderMapper.exists(any())).thenReturn(true);
+        when(nodeWriter.writeBatch(anyList())).thenAnswer(invocation -> {
+            List<LogisticsNodeDTO> dtos = invocation.getArgument(0);
+            if (dtos.stream().anyMatch(dto -> "poison".equals(dto.getStatus()))) {
+                throw new IllegalArgumentException("poison record");
+            }
+            List<LogisticsNode> nodes = new ArrayList<>();
+            for (LogisticsNodeDTO dto : dtos) {
+                LogisticsNode node = new LogisticsNode();
+                node.setOrderId(dto.getOrderId());
+                node.setStatus(dto.getStatus());
+                nodes.add(node);
+                stored.add(dto.getStatus());
+            }
+            return nodes;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (JournaledNodeWriter writer : writers) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void replaysRecordsAfterCheckpoint() throws Exception {
+        try (NodeJournal journal = new NodeJournal(dir, 1 << 20)) {
+            journal.open(0, (seq, payload) -> { });
+            for (String status : List.of("s1", "s2", "s3")) {
+                journal.append(objectMapper.writeValueAsBytes(event(status)));
+            }
+            journal.sync();
+        }
+        when(checkpointMapper.selectLastSeq(NAME)).thenReturn(1L);
+
+        start(1, 5000);
+
+        verify(checkpointMapper, timeout(5000)).upsert(NAME, 3L);
+        assertThat(stored).containsExactly("s2", "s3");
+    }
+
+    @Test
+    void poisonRecordGoesToDeadLetterWithoutBlockingOthers() throws Exception {
+        JournaledNodeWriter writer = start(1, 5000);
+
+        writer.append(event("s1"));
+        writer.append(event("poison"));
+        writer.append(event("s3"));
+
+        verify(checkpointMapper, timeout(5000)).upsert(NAME, 3L);
+        verify(deadLetterMapper).upsert(eq(NAME), eq(2L), contains("poison"), anyString());
+        assertThat(stored).containsExactly("s1", "s3");
+    }
+
+    @Test
+    void rejectsEventForMissingOrder() throws Exception {
+        JournaledNodeWriter writer = start(1, 5000);
+        when(orderMapper.exists(any())).thenReturn(false);
+
+        assertThatThrownBy(() -> writer.append(event("s1")))
+                .isInstanceOfSatisfying(BusinessException.class,
+                        e -> assertThat(e.getCode()).isEqualTo(ResultCode.ORDER_NOT_FOUND.getCode()));
+
+        TimeUnit.MILLISECONDS.sleep(300);
+        verify(nodeWriter, never()).writeBatch(anyList());
+    }
+
+    @Test
+    void timedOutAppendIsNotReplayed() throws Exception {
+        // 回放的第一条事件卡在入库中，后台不会取走随后追加的事件
+        try (NodeJournal journal = new NodeJournal(dir, 1 << 20)) {
+            journal.open(0, (seq, payload) -> { });
+            journal.append(objectMapper.writeValueAsBytes(event("s1")));
+            journal.sync();
+        }
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(nodeWriter.writeBatch(anyList())).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            return List.of(new LogisticsNode());
+        });
+        // 刷盘间隔远大于等待超时，追加的事件等不到落盘
+        JournaledNodeWriter writer = start(60000, 50);
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> writer.append(event("s2")))
+                .isInstanceOfSatisfying(BusinessException.class,
+                        e -> assertThat(e.getCode()).isEqualTo(ResultCode.SERVICE_BUSY.getCode()));
+
+        release.countDown();
+        verify(checkpointMapper, timeout(5000)).upsert(NAME, 1L);
+        writer.stop();
+        writers.remove(writer);
+
+        // 重启后只回放检查点之后的记录，被撤销的事件不会入库
+        when(checkpointMapper.selectLastSeq(NAME)).thenReturn(1L);
+        List<List<LogisticsNodeDTO>> replayed = Collections.synchronizedList(new ArrayList<>());
+        when(nodeWriter.writeBatch(anyList())).thenAnswer(invocation -> {
+            replayed.add(invocation.getArgument(0));
+            return List.of();
+        });
+        start(1, 5000);
+
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertThat(replayed).isEmpty();
+    }
+
+    private JournaledNodeWriter start(long fsyncInterval, long durableTimeout) throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        JournaledNodeWriter writer = new JournaledNodeWriter(nodeWriter, orderMapper, checkpointMapper,
+                deadLetterMapper, transactionTemplate, objectMapper);
+        ReflectionTestUtils.setField(writer, "name", NAME);
+        ReflectionTestUtils.setField(writer, "dir", dir.toString());
+        ReflectionTestUtils.setField(writer, "segmentSize", 1 << 20);
+        ReflectionTestUtils.setField(writer, "fsyncInterval", fsyncInterval);
+        ReflectionTestUtils.setField(writer, "durableTimeout", durableTimeout);
+        ReflectionTestUtils.setField(writer, "maxPending", 1000);
+        ReflectionTestUtils.setField(writer, "offerTimeout", 200L);
+        ReflectionTestUtils.setField(writer, "drainBatchSize", 500);
+        writer.start();
+        writers.add(writer);
+        return writer;
+    }
+
+    private static LogisticsNodeDTO event(String status) {
+        LogisticsNodeDTO dto = new LogisticsNodeDTO();
+        dto.setOrderId(1L);
+        dto.setStatus(status);
+        dto.setLocation("深圳市");
+        return dto;
+    }
+}
@@ -0,0 +1,68 @@
+package com.logistics.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderSearchIndexTest {
+
+    @Test
+    void normalizeRemovesBlanksAndLowercases() {
+        assertThat(OrderSearchIndex.normalize(null)).isEmpty();
+        assertThat(OrderSearchIndex.normalize(" SF 1234\t5678\n")).isEqualTo("sf12345678");
+        assertThat(OrderSearchIndex.normalize("张 三")).isEqualTo("张三");
+    }
+
+    @Test
+    void asciiTextIsIndexedAsBigrams() {
+        assertThat(tokens("SF123")).containsExactly("sf", "f1", "12", "23");
+        assertThat(tokens("a")).isEmpty();
+    }
+
+    @Test
+    void nonAsciiTextIsIndexedAsUnigramsAndBigrams() {
+        assertThat(tokens("张三丰")).containsExactly("张", "张三", "三", "三丰", "丰");
+        assertThat(tokens("王a")).containsExactly("王", "王a");
+    }
+
+    @Test
+    void supplementaryCharactersCountAsOneCodePoint() {
+        // U+20BB7 在UTF-16中占两个char，不能被拆成半个代理对
+        String name = "𠮷明";
+        assertThat(tokens(name)).containsExactly("𠮷", name, "明");
+        assertThat(OrderSearchIndex.queryGrams("𠮷")).containsExactly("𠮷");
+    }
+
+    @Test
+    void queryGramsSkipSingleAsciiCharacter() {
+        assertThat(OrderSearchIndex.queryGrams("")).isEmpty();
+        assertThat(OrderSearchIndex.queryGrams("1")).isEmpty();
+        assertThat(OrderSearchIndex.queryGrams("张")).containsExactly("张");
+        assertThat(OrderSearchIndex.queryGrams("1212")).containsExactly("12", "21");
+    }
+
+    @Test
+    void everySubstringOfIndexedTextMatches() {
+        for (String text : List.of("SF1234567890123", "13800138000", "欧阳娜娜", "李a1")) {
+            Set<String> tokens = tokens(text);
+            String normalized = OrderSearchIndex.normalize(text);
+            int[] cps = normalized.codePoints().toArray();
+            for (int from = 0; from < cps.length; from++) {
+                for (int to = from + 1; to <= cps.length; to++) {
+                    String keyword = new String(cps, from, to - from);
+                    assertThat(tokens).as(keyword).containsAll(OrderSearchIndex.queryGrams(keyword));
+                }
+            }
+        }
+    }
+
+    private static Set<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        OrderSearchIndex.addTokens(tokens, text);
+        return tokens;
+    }
+}
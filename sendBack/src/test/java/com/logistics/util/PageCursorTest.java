@@ -0,0 +1,61 @@
+package com.logistics.util;
+
+import com.logistics.common.BusinessException;
+import com.logistics.common.ResultCode;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    void roundTripsCreatedAtAndId() {
+        List<LocalDateTime> times = List.of(
+                LocalDateTime.of(2026, 10, 18, 10, 15, 30),
+                // 秒为0时toString省略秒，毫秒和纳秒精度都要保留
+                LocalDateTime.of(2026, 1, 1, 0, 0),
+                LocalDateTime.of(2026, 10, 18, 10, 15, 30, 123_000_000),
+                LocalDateTime.of(2026, 10, 18, 10, 15, 30, 123_456_789));
+        for (LocalDateTime time : times) {
+            for (long id : new long[]{1L, 1_234_567_890_123_456_789L, Long.MAX_VALUE}) {
+                PageCursor decoded = PageCursor.decode(new PageCursor(time, id).encode());
+                assertThat(decoded.getCreatedAt()).isEqualTo(time);
+                assertThat(decoded.getId()).isEqualTo(id);
+            }
+        }
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String cursor = new PageCursor(LocalDateTime.of(2026, 10, 18, 23, 59, 59, 999_999_999), Long.MAX_VALUE).encode();
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void invalidCursorsAreRejectedAsBadRequest() {
+        List<String> invalid = List.of(
+                "",
+                "!!!not-base64!!!",
+                encode("2026-10-18T10:15:30"),
+                encode("2026-10-18T10:15:30,abc"),
+                encode("yesterday,42"),
+                encode(",42"));
+        for (String cursor : invalid) {
+            assertThatThrownBy(() -> PageCursor.decode(cursor))
+                    .as(cursor)
+                    .isInstanceOf(BusinessException.class)
+                    .extracting("code").isEqualTo(ResultCode.BAD_REQUEST.getCode());
+        }
+        assertThatThrownBy(() -> PageCursor.decode(null)).isInstanceOf(BusinessException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,93 @@
+package com.logistics.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrackingNumberUtilTest {
+
+    private static final List<Long> SEQUENCES = List.of(
+            TrackingNumberUtil.MIN_SEQUENCE, 123_456_789_012L, 500_000_000_009L, 908_070_605_040L,
+            TrackingNumberUtil.MAX_SEQUENCE);
+
+    @Test
+    void formattedNumbersAreWellFormed() {
+        for (long sequence : SEQUENCES) {
+            String trackingNumber = TrackingNumberUtil.format("SF", sequence);
+            assertThat(trackingNumber).hasSize(2 + 13).startsWith("SF" + sequence);
+            assertThat(TrackingNumberUtil.isWellFormed(trackingNumber)).as(trackingNumber).isTrue();
+            assertThat(TrackingNumberUtil.isWellFormed(TrackingNumberUtil.format("YTO", sequence))).isTrue();
+        }
+    }
+
+    @Test
+    void checkDigitMatchesKnownLuhnValues() {
+        // 79927398713 是Luhn的标准示例
+        assertThat(TrackingNumberUtil.checkDigit("7992739871", 0, 10)).isEqualTo(3);
+        assertThat(TrackingNumberUtil.checkDigit("SF7992739871", 2, 12)).isEqualTo(3);
+        assertThat(TrackingNumberUtil.checkDigit("0", 0, 1)).isZero();
+    }
+
+    @Test
+    void legacyNumbersWithoutCheckDigitAreAccepted() {
+        assertThat(TrackingNumberUtil.isWellFormed("SF1234567890")).isTrue();
+        assertThat(TrackingNumberUtil.isWellFormed("ZTO12345678901")).isTrue();
+        assertThat(TrackingNumberUtil.isWellFormed("yd123456789012")).isTrue();
+    }
+
+    @Test
+    void malformedNumbersAreRejected() {
+        assertThat(TrackingNumberUtil.isWellFormed(null)).isFalse();
+        assertThat(TrackingNumberUtil.isWellFormed("")).isFalse();
+        // 前缀长度不符
+        assertThat(TrackingNumberUtil.isWellFormed("S1234567890")).isFalse();
+        assertThat(TrackingNumberUtil.isWellFormed("SFEX1234567890")).isFalse();
+        // 数字位数不符
+        assertThat(TrackingNumberUtil.isWellFormed("SF123456789")).isFalse();
+        assertThat(TrackingNumberUtil.isWellFormed("SF12345678901234")).isFalse();
+        // 非ASCII数字或字母
+        assertThat(TrackingNumberUtil.isWellFormed("SF12345X7890")).isFalse();
+        assertThat(TrackingNumberUtil.isWellFormed("SF１２３４５６７８９０")).isFalse();
+        assertThat(TrackingNumberUtil.isWellFormed("顺丰1234567890")).isFalse();
+    }
+
+    @Test
+    void singleDigitErrorsAreRejected() {
+        for (long sequence : SEQUENCES) {
+            String trackingNumber = TrackingNumberUtil.format("SF", sequence);
+            for (int i = 2; i < trackingNumber.length(); i++) {
+                for (char digit = '0'; digit <= '9'; digit++) {
+                    if (digit == trackingNumber.charAt(i)) {
+                        continue;
+                    }
+                    String mistyped = replace(trackingNumber, i, digit);
+                    assertThat(TrackingNumberUtil.isWellFormed(mistyped)).as(mistyped).isFalse();
+                }
+            }
+        }
+    }
+
+    @Test
+    void adjacentTranspositionsAreRejectedExceptNineAndZero() {
+        for (long sequence : SEQUENCES) {
+            String trackingNumber = TrackingNumberUtil.format("SF", sequence);
+            for (int i = 2; i < trackingNumber.length() - 1; i++) {
+                char a = trackingNumber.charAt(i);
+                char b = trackingNumber.charAt(i + 1);
+                if (a == b) {
+                    continue;
+                }
+                String swapped = replace(replace(trackingNumber, i, b), i + 1, a);
+                // Luhn 唯一检测不到的相邻颠倒是 09 <-> 90
+                boolean undetectable = (a == '0' && b == '9') || (a == '9' && b == '0');
+                assertThat(TrackingNumberUtil.isWellFormed(swapped)).as(swapped).isEqualTo(undetectable);
+            }
+        }
+    }
+
+    private static String replace(String s, int index, char c) {
+        return s.substring(0, index) + c + s.substring(index + 1);
+    }
+}
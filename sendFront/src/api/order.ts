@@ -49,6 +49,7 @@ export interface OrderVO {
   receiverAddress: string
   estimatedTime: string | null
   createdAt: string
+  currentNode?: LogisticsNodeVO | null // 当前物流节点（列表页最新一条物流信息）
   logisticsNodes?: LogisticsNodeVO[]
 }
 
@@ -64,6 +65,22 @@ export interface LogisticsNodeVO {
   isActive: boolean
 }
 
+// 批量单号查询的单条结果
+export interface TrackingLookupVO {
+  found: boolean
+  message: string | null
+  order: OrderVO | null
+}
+
+// 各状态订单数
+export interface OrderSummaryVO {
+  pending: number
+  inTransit: number
+  delivered: number
+  exception: number
+  total: number
+}
+
 // 分页响应（与后端一致）
 export interface PageVO<T> {
   list: T[]
@@ -78,6 +95,11 @@ export function getOrderList(params?: OrderQueryDTO) {
   return get<PageVO<OrderVO>>('/orders', { params })
 }
 
+// 获取当前用户各状态订单数
+export function getOrderSummary() {
+  return get<OrderSummaryVO>('/orders/summary')
+}
+
 // 获取订单详情
 export function getOrderById(id: number) {
   return get<OrderVO>(`/orders/${id}`)
@@ -88,6 +110,11 @@ export function getOrderByTrackingNumber(trackingNumber: string) {
   return get<OrderVO>(`/orders/tracking/${trackingNumber}`)
 }
 
+// 批量根据快递单号查询订单，结果以单号为键
+export function getOrdersByTrackingNumbers(trackingNumbers: string[]) {
+  return post<Record<string, TrackingLookupVO>>('/orders/tracking/batch', { trackingNumbers })
+}
+
 // 创建订单
 export function createOrder(data: OrderCreateDTO) {
   return post<OrderVO>('/orders', data)
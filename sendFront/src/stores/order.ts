@@ -1,4 +1,4 @@
-import type { OrderVO } from '@/api/order'
+import type { OrderSummaryVO, OrderVO } from '@/api/order'
 import type { LogisticsInfo, Order, OrderStatus } from '@/types'
 import { defineStore } from 'pinia'
 import { computed, ref } from 'vue'
@@ -36,6 +36,7 @@ export const useOrderStore = defineStore('order', () => {
   const currentLogistics = ref<LogisticsInfo | null>(null)
   const loading = ref(false)
   const totalCount = ref(0)
+  const summary = ref<OrderSummaryVO | null>(null)
 
   // 计算属性：根据状态过滤订单
   const pendingOrders = computed(() => orders.value.filter(order => order.status === 'pending'))
@@ -48,14 +49,25 @@ export const useOrderStore = defineStore('order', () => {
 
   const exceptionOrders = computed(() => orders.value.filter(order => order.status === 'exception'))
 
-  // 计算属性：订单统计
-  const orderStats = computed(() => ({
+  // 计算属性：订单统计，优先使用后端计数，未加载时按当前页估算
+  const orderStats = computed(() => summary.value ?? {
     total: totalCount.value,
     pending: pendingOrders.value.length,
     inTransit: inTransitOrders.value.length,
     delivered: deliveredOrders.value.length,
     exception: exceptionOrders.value.length,
-  }))
+  })
+
+  // 加载各状态订单数
+  async function loadSummary() {
+    try {
+      const res = await orderApi.getOrderSummary()
+      summary.value = res.data
+      return true
+    } catch {
+      return false
+    }
+  }
 
   // 加载订单列表
   async function loadOrders(params?: {
@@ -66,7 +78,7 @@ export const useOrderStore = defineStore('order', () => {
   }) {
     loading.value = true
     try {
-      const res = await orderApi.getOrderList(params)
+      const [res] = await Promise.all([orderApi.getOrderList(params), loadSummary()])
       orders.value = res.data.list.map(convertOrder)
       totalCount.value = res.data.total
       return true
@@ -177,6 +189,7 @@ export const useOrderStore = defineStore('order', () => {
       const newOrder = convertOrder(res.data)
       orders.value.unshift(newOrder)
       totalCount.value++
+      loadSummary()
       return newOrder
     } catch {
       return null
@@ -192,6 +205,7 @@ export const useOrderStore = defineStore('order', () => {
         orders.value.splice(index, 1)
         totalCount.value--
       }
+      loadSummary()
       return true
     } catch {
       return false
@@ -207,6 +221,7 @@ export const useOrderStore = defineStore('order', () => {
         order.status = status
         order.updatedAt = new Date().toISOString()
       }
+      loadSummary()
       return true
     } catch {
       return false
@@ -224,6 +239,8 @@ export const useOrderStore = defineStore('order', () => {
     deliveredOrders,
     exceptionOrders,
     orderStats,
+    summary,
+    loadSummary,
     loadOrders,
     getOrderById,
     searchByTrackingNumber,